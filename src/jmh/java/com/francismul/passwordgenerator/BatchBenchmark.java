@@ -0,0 +1,68 @@
+package com.francismul.passwordgenerator;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Bulk generation into flat buffers, sequential and fork-join. One op is one batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+    @Param({ "100000" })
+    int count;
+
+    @Param({ "16", "32" })
+    int length;
+
+    CharsetPolicy policy = CharsetPolicy.of(15);
+    char[] chars;
+    ByteBuffer bytes;
+    ParallelBatchGenerator parallel;
+
+    @Setup
+    public void setup() {
+        chars = new char[count * (length + 1)];
+        bytes = ByteBuffer.allocateDirect(count * (length + 1));
+        parallel = new ParallelBatchGenerator(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallel.close();
+    }
+
+    @Benchmark
+    public char[] batchChars() {
+        PasswordGenerator.generateBatch(count, length, policy, chars, 0, true);
+        return chars;
+    }
+
+    @Benchmark
+    public ByteBuffer batchDirectBytes() {
+        bytes.clear();
+        PasswordGenerator.generateBatch(count, length, policy, bytes, true);
+        return bytes;
+    }
+
+    @Benchmark
+    public ByteBuffer parallelDirectBytes() {
+        bytes.clear();
+        parallel.generate(count, length, policy, bytes, true);
+        return bytes;
+    }
+
+    @Benchmark
+    public String loopOfStrings() {
+        String last = null;
+        for (int i = 0; i < count; i++)
+            last = PasswordGenerator.generate(length, policy);
+        return last;
+    }
+}
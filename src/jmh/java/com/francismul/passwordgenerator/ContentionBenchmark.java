@@ -0,0 +1,43 @@
+package com.francismul.passwordgenerator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Multi-threaded generate() against the shared SecureRandom versus striped and per-thread instances.
+ * Compare the single-threaded and all-threads scores per mode to see how each one scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentionBenchmark {
+    @Param({ "shared", "striped", "perThread" })
+    String mode;
+
+    CharsetPolicy policy = CharsetPolicy.of(15);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (mode) {
+            case "striped" -> PasswordGenerator.useStripedRandom(RngAlgorithm.DRBG, false);
+            case "perThread" -> PasswordGenerator.useStripedRandom(RngAlgorithm.DRBG, true);
+            default -> PasswordGenerator.useSharedRandom();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String oneThread() {
+        return PasswordGenerator.generate(16, policy);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String allThreads() {
+        return PasswordGenerator.generate(16, policy);
+    }
+}
@@ -0,0 +1,67 @@
+package com.francismul.passwordgenerator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Single-password generation and entropy scoring across lengths and class combinations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenerateBenchmark {
+    @Param({ "4", "16", "64", "256", "1024", "4096" })
+    int length;
+
+    // lower, lower+upper, lower+upper+digits, all, symbols only
+    @Param({ "1", "3", "7", "15", "8" })
+    int mask;
+
+    CharsetPolicy policy;
+    boolean lower, upper, digits, symbols;
+    String password;
+    char[] out;
+    GeneratorContext context;
+
+    @Setup
+    public void setup() {
+        policy = CharsetPolicy.of(mask);
+        lower = policy.includes(CharsetPolicy.LOWER);
+        upper = policy.includes(CharsetPolicy.UPPER);
+        digits = policy.includes(CharsetPolicy.DIGITS);
+        symbols = policy.includes(CharsetPolicy.SYMBOLS);
+        password = PasswordGenerator.generate(length, policy);
+        out = new char[length];
+        context = new GeneratorContext();
+    }
+
+    @Benchmark
+    public String generateFlags() {
+        return PasswordGenerator.generate(length, lower, upper, digits, symbols);
+    }
+
+    @Benchmark
+    public String generatePolicy() {
+        return PasswordGenerator.generate(length, policy);
+    }
+
+    @Benchmark
+    public char[] generateIntoBuffer() {
+        context.generate(length, policy, out, 0);
+        return out;
+    }
+
+    @Benchmark
+    public double entropyFlags() {
+        return PasswordGenerator.entropyBits(password, lower, upper, digits, symbols);
+    }
+
+    @Benchmark
+    public double entropyPolicy() {
+        return PasswordGenerator.entropyBits(password, policy);
+    }
+}
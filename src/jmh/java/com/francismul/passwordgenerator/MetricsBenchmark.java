@@ -0,0 +1,44 @@
+package com.francismul.passwordgenerator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of the metrics hooks. The flag is read once per JVM, so each mode runs in its own fork;
+ * "off" should match GenerateBenchmark.generateIntoBuffer, and the gap to "on" is the price
+ * of counters, histogram and JFR events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MetricsBenchmark {
+    @Param({ "16", "64" })
+    int length;
+
+    CharsetPolicy policy = CharsetPolicy.of(15);
+    char[] out;
+    GeneratorContext context;
+
+    @Setup
+    public void setup() {
+        out = new char[length];
+        context = new GeneratorContext();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public char[] off() {
+        context.generate(length, policy, out, 0);
+        return out;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dpasswordgenerator.metrics=true")
+    public char[] on() {
+        context.generate(length, policy, out, 0);
+        return out;
+    }
+}
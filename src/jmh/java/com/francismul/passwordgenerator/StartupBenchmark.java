@@ -0,0 +1,23 @@
+package com.francismul.passwordgenerator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Time to first password in a fresh JVM: class loading, SecureRandom and generator setup,
+ * i.e. what ConsoleApp pays on top of JVM boot for a one-off call. Every sample is the first
+ * call in its own fork, so raise -f for tighter percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+    @Benchmark
+    public String firstPassword() {
+        return PasswordGenerator.generate(16, CharsetPolicy.of(15));
+    }
+}
@@ -0,0 +1,56 @@
+package com.francismul.passwordgenerator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Scalar versus Vector API mapping of random bytes to pool characters, on its own and
+ * inside bulk generation. The forks add the incubator module; add
+ * {@code -jvmArgsAppend -XX:UseAVX=2} to compare AVX2 with AVX-512 on the same machine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class VectorBenchmark {
+    @Param({ "scalar", "vector" })
+    String mapping;
+
+    /** CharsetPolicy mask: 15 is all four classes (94 chars), 4 is digits only. */
+    @Param({ "15", "4" })
+    int mask;
+
+    CharsetPolicy policy;
+    PoolMapper mapper;
+    byte[] random = new byte[64 * 1024];
+    byte[] mapped = new byte[64 * 1024];
+    GeneratorContext context;
+    char[] batch = new char[100_000 * 17];
+
+    @Setup
+    public void setup() {
+        policy = CharsetPolicy.of(mask);
+        boolean vector = mapping.equals("vector");
+        mapper = vector ? PoolMapper.vector(policy) : PoolMapper.scalar(policy);
+        new SplittableRandom(42).nextBytes(random);
+        context = new GeneratorContext(RandomSource.seeded(42));
+        context.setVectorMapping(vector);
+    }
+
+    /** One op maps a 64 KiB block. */
+    @Benchmark
+    public int mapBlock() {
+        return mapper.map(random, 0, random.length, mapped, 0);
+    }
+
+    /** One op is 100,000 passwords of 16 chars; "scalar" draws each char through the sampler. */
+    @Benchmark
+    public char[] batch() {
+        context.generateBatch(100_000, 16, policy, batch, 0, true);
+        return batch;
+    }
+}
@@ -0,0 +1,173 @@
+package com.francismul.passwordgenerator;
+
+import java.awt.Color;
+import java.awt.Window;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.Timer;
+
+/**
+ * One frame clock for every GUI effect.
+ * Animations register under a key and are stepped on the EDT every {@code every} frames;
+ * playing a key that is already running replaces the old animation, so rapid input never
+ * stacks effects. The clock only ticks as fast as the quickest running animation needs, stops
+ * when nothing is running and while the window is hidden or minimized, and animations count
+ * frames rather than wall time, so they resume where they paused.
+ */
+final class AnimationScheduler {
+    static final int FRAME_MS = 40;
+
+    /** One effect; {@link #frame()} returns false once it has finished. */
+    interface Animation {
+        boolean frame();
+
+        /** Called when the animation is replaced before it finished. */
+        default void stopped() {
+        }
+    }
+
+    private final Window window;
+    private final Timer clock;
+    private final Map<Object, Entry> active = new LinkedHashMap<>();
+    private final Map<Object, Entry> pending = new LinkedHashMap<>();
+    private boolean dispatching;
+    private boolean paused;
+    private long frame;
+    private int framesPerTick = 1;
+
+    private static final class Entry {
+        final Animation animation;
+        final int every;
+        long due;
+
+        Entry(Animation animation, int every, long due) {
+            this.animation = animation;
+            this.every = every;
+            this.due = due;
+        }
+    }
+
+    AnimationScheduler(Window window) {
+        this.window = window;
+        this.clock = new Timer(FRAME_MS, e -> tick());
+        clock.setCoalesce(true);
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent e) {
+                setPaused(true);
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                setPaused(false);
+            }
+        });
+        window.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                setPaused(true);
+            }
+
+            @Override
+            public void componentShown(ComponentEvent e) {
+                setPaused(false);
+            }
+        });
+    }
+
+    /** Starts {@code animation} under {@code key}, stepped every frame, replacing whatever ran there. */
+    void play(Object key, Animation animation) {
+        play(key, 1, animation);
+    }
+
+    /** Starts {@code animation} under {@code key}, stepped once every {@code every} frames. */
+    void play(Object key, int every, Animation animation) {
+        if (every < 1)
+            throw new IllegalArgumentException("Frame interval must be >= 1");
+        Entry entry = new Entry(animation, every, frame);
+        if (dispatching) {
+            pending.put(key, entry);
+            return;
+        }
+        replace(key, entry);
+        updateClock();
+    }
+
+    /**
+     * Colours stepping linearly from {@code from} to {@code to}, both included; built once so
+     * effects never allocate a Color per frame.
+     */
+    static Color[] ramp(Color from, Color to, int steps) {
+        Color[] out = new Color[steps];
+        for (int i = 0; i < steps; i++) {
+            float t = steps == 1 ? 1 : i / (float) (steps - 1);
+            out[i] = new Color(
+                    Math.round(from.getRed() + (to.getRed() - from.getRed()) * t),
+                    Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * t),
+                    Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * t),
+                    Math.round(from.getAlpha() + (to.getAlpha() - from.getAlpha()) * t));
+        }
+        return out;
+    }
+
+    private void setPaused(boolean p) {
+        paused = p;
+        updateClock();
+    }
+
+    private void replace(Object key, Entry entry) {
+        Entry old = active.put(key, entry);
+        if (old != null && old.animation != entry.animation)
+            old.animation.stopped();
+    }
+
+    private void updateClock() {
+        boolean run = !paused && window.isShowing() && !active.isEmpty();
+        if (!run) {
+            if (clock.isRunning())
+                clock.stop();
+            return;
+        }
+        int every = Integer.MAX_VALUE;
+        for (Entry e : active.values())
+            every = Math.min(every, e.every);
+        if (every != framesPerTick) {
+            framesPerTick = every;
+            clock.setDelay(FRAME_MS * every);
+            clock.setInitialDelay(FRAME_MS * every);
+            if (clock.isRunning())
+                clock.restart();
+        }
+        if (!clock.isRunning())
+            clock.start();
+    }
+
+    private void tick() {
+        frame += framesPerTick;
+        dispatching = true;
+        try {
+            for (Iterator<Entry> it = active.values().iterator(); it.hasNext();) {
+                Entry e = it.next();
+                if (frame < e.due)
+                    continue;
+                e.due = frame + e.every;
+                if (!e.animation.frame())
+                    it.remove();
+            }
+        } finally {
+            dispatching = false;
+        }
+        if (!pending.isEmpty()) {
+            for (Map.Entry<Object, Entry> e : pending.entrySet())
+                replace(e.getKey(), e.getValue());
+            pending.clear();
+        }
+        updateClock();
+    }
+}
@@ -1,12 +1,37 @@
 package com.francismul.passwordgenerator;
 
+import java.io.BufferedWriter;
+import java.io.Console;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
  * Console version of the Password Generator.
+ * Runs the interactive menu when started without arguments, otherwise streams
+ * passwords non-interactively (see {@link #runHeadless(String[])}).
  */
 public class App {
+    private static final int HEADLESS_CHUNK_BYTES = 256 * 1024;
+    // Same cap as AppServer; also keeps length + 1 line strides and chunk sizes far from overflow
+    private static final int MAX_LENGTH = 65_536;
+    static final String PASSPHRASE_ENV = "PASSWORDGENERATOR_PASSPHRASE";
+
     public static void main(String[] args) {
+        if (args.length > 0)
+            System.exit(runHeadless(args));
+
         System.out.println("Welcome to Password Generator Console App");
 
         try (Scanner scanner = new Scanner(System.in)) {
@@ -75,4 +100,246 @@ public class App {
             }
         }
     }
+
+    /**
+     * Scriptable mode, e.g. {@code --count 50000000 --length 32 --lower --upper --digits --symbols --out -}.
+     * Passwords are generated in parallel batches and written straight to the output
+     * channel one line each, so memory use does not grow with the count.
+     * Returns the process exit code.
+     */
+    static int runHeadless(String[] args) {
+        long count = 1;
+        int length = 16;
+        boolean lower = false, upper = false, digits = false, symbols = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = "-";
+        boolean mapped = false;
+        boolean uniqueOut = false;
+        String breachedPath = null;
+        boolean metrics = false;
+        String wordList = null;
+        int words = 6;
+        String separator = "-";
+        boolean encrypt = false;
+        String decryptPath = null;
+        char[] passphrase = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--count" -> count = Long.parseLong(value(args, ++i));
+                    case "--length" -> length = Integer.parseInt(value(args, ++i));
+                    case "--lower" -> lower = true;
+                    case "--upper" -> upper = true;
+                    case "--digits" -> digits = true;
+                    case "--symbols" -> symbols = true;
+                    case "--threads" -> threads = Integer.parseInt(value(args, ++i));
+                    case "--out" -> out = value(args, ++i);
+                    case "--mmap" -> mapped = true;
+                    case "--unique" -> uniqueOut = true;
+                    case "--breached" -> breachedPath = value(args, ++i);
+                    case "--metrics" -> {
+                        // Must be set before the first generate call loads GeneratorMetrics
+                        metrics = true;
+                        System.setProperty(GeneratorMetrics.PROPERTY, "true");
+                    }
+                    case "--wordlist" -> wordList = value(args, ++i);
+                    case "--words" -> words = Integer.parseInt(value(args, ++i));
+                    case "--separator" -> separator = value(args, ++i);
+                    case "--encrypt" -> encrypt = true;
+                    case "--decrypt" -> decryptPath = value(args, ++i);
+                    case "--help", "-h" -> {
+                        printUsage();
+                        return 0;
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (count < 0)
+                throw new IllegalArgumentException("Count must be >= 0");
+            if (length < 4 || length > MAX_LENGTH)
+                throw new IllegalArgumentException("Length must be between 4 and " + MAX_LENGTH);
+            // No class flags means all classes, which is what scripts almost always want
+            if (!lower && !upper && !digits && !symbols)
+                lower = upper = digits = symbols = true;
+            if (mapped && out.equals("-"))
+                throw new IllegalArgumentException("--mmap needs --out FILE");
+            if (words < 1)
+                throw new IllegalArgumentException("Word count must be >= 1");
+            if (encrypt && mapped)
+                throw new IllegalArgumentException("--encrypt cannot be combined with --mmap");
+            if (encrypt || decryptPath != null)
+                passphrase = readPassphrase(encrypt);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
+            return 2;
+        }
+
+        try {
+            if (decryptPath != null)
+                return decrypt(Path.of(decryptPath), out, passphrase);
+            if (wordList != null)
+                return writePassphrases(count, words, separator, Path.of(wordList), out, passphrase);
+            return writePasswords(count, length, CharsetPolicy.of(lower, upper, digits, symbols), threads, out,
+                    mapped, uniqueOut, breachedPath, passphrase);
+        } finally {
+            if (passphrase != null)
+                Arrays.fill(passphrase, '\0');
+            if (metrics)
+                GeneratorMetrics.dump(System.err);
+        }
+    }
+
+    private static int writePasswords(long count, int length, CharsetPolicy policy, int threads, String out,
+            boolean mapped, boolean uniqueOut, String breachedPath, char[] passphrase) {
+        int stride = GeneratorContext.stride(length, true);
+        int chunk = Math.max(1, HEADLESS_CHUNK_BYTES / stride);
+        UniqueFilter unique = uniqueOut && count > 0 ? new UniqueFilter(count) : null;
+        try (BreachedHashFile breached = breachedPath == null ? null
+                : BreachedHashFile.open(Path.of(breachedPath), BreachedHashFile.Algorithm.SHA1)) {
+            // Breach check first so the unique set only records passwords that are actually written
+            PasswordFilter filter = breached == null ? unique : unique == null ? breached : breached.and(unique);
+            return writeFiltered(count, length, policy, threads, chunk, out, mapped, filter, unique, passphrase);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int writeFiltered(long count, int length, CharsetPolicy policy, int threads, int chunk,
+            String out, boolean mapped, PasswordFilter filter, UniqueFilter unique, char[] passphrase) {
+        if (mapped) {
+            try (ParallelBatchGenerator generator = new ParallelBatchGenerator(threads, chunk,
+                    PasswordGenerator.randomSource())) {
+                generator.setFilter(filter);
+                MappedPasswordFile.write(Path.of(out), count, length, policy, generator);
+                printStats(unique);
+                return 0;
+            } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+                System.err.println("Error: " + e.getMessage());
+                return 1;
+            }
+        }
+        try (WritableByteChannel channel = openOutput(out, passphrase);
+                ParallelBatchGenerator generator = new ParallelBatchGenerator(threads, chunk,
+                        PasswordGenerator.randomSource())) {
+            generator.setFilter(filter);
+            generator.generate(count, length, policy, true, (first, buffer) -> {
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            });
+            printStats(unique);
+            return 0;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        } catch (IOException e) {
+            // A closed pipe (e.g. "| head") is a normal way for a consumer to stop reading
+            if (out.equals("-") && "Broken pipe".equals(e.getMessage()))
+                return 0;
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int writePassphrases(long count, int words, String separator, Path wordList, String out,
+            char[] passphrase) {
+        try (WordList list = WordList.open(wordList);
+                Writer writer = new BufferedWriter(
+                        Channels.newWriter(openOutput(out, passphrase), StandardCharsets.UTF_8),
+                        HEADLESS_CHUNK_BYTES)) {
+            System.err.printf("Passphrase entropy: %.1f bits (%d words from %d)%n",
+                    PasswordGenerator.entropyBits(words, list), words, list.size());
+            for (long i = 0; i < count; i++) {
+                writer.write(PasswordGenerator.generatePassphrase(words, separator, list));
+                writer.write('\n');
+            }
+            return 0;
+        } catch (IOException e) {
+            if (out.equals("-") && "Broken pipe".equals(e.getMessage()))
+                return 0;
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int decrypt(Path in, String out, char[] passphrase) {
+        try (InputStream source = EncryptedExport.open(Files.newInputStream(in), passphrase);
+                WritableByteChannel channel = openOutput(out, null)) {
+            source.transferTo(Channels.newOutputStream(channel));
+            return 0;
+        } catch (IOException e) {
+            if (out.equals("-") && "Broken pipe".equals(e.getMessage()))
+                return 0;
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    // The environment variable keeps scripts non-interactive; otherwise ask on the terminal
+    private static char[] readPassphrase(boolean confirm) {
+        String env = System.getenv(PASSPHRASE_ENV);
+        if (env != null && !env.isEmpty())
+            return env.toCharArray();
+        Console console = System.console();
+        if (console == null)
+            throw new IllegalArgumentException("Encryption needs a terminal or " + PASSPHRASE_ENV);
+        char[] passphrase = console.readPassword("Export passphrase: ");
+        if (passphrase == null || passphrase.length == 0)
+            throw new IllegalArgumentException("Empty passphrase");
+        if (confirm) {
+            char[] again = console.readPassword("Repeat passphrase: ");
+            boolean same = Arrays.equals(passphrase, again);
+            if (again != null)
+                Arrays.fill(again, '\0');
+            if (!same)
+                throw new IllegalArgumentException("Passphrases do not match");
+        }
+        return passphrase;
+    }
+
+    private static void printStats(UniqueFilter filter) {
+        if (filter == null)
+            return;
+        UniqueFilter.Stats stats = filter.stats();
+        System.err.printf("Unique: %d passwords, %d duplicates regenerated (retry rate %.2e)%n",
+                stats.entries(), stats.duplicates(), stats.retryRate());
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length)
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    private static WritableByteChannel openOutput(String out, char[] passphrase) throws IOException {
+        WritableByteChannel channel = out.equals("-") ? new FileOutputStream(FileDescriptor.out).getChannel()
+                : FileChannel.open(Path.of(out), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+        if (passphrase == null)
+            return channel;
+        try {
+            return EncryptedExport.create(Channels.newOutputStream(channel), passphrase);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: App [--count N] [--length L] [--lower] [--upper] [--digits] [--symbols]");
+        System.err.println("           [--threads T] [--out FILE|-] [--mmap] [--unique]");
+        System.err.println("           [--breached SHA1FILE] [--metrics] [--encrypt]");
+        System.err.println("Writes N passwords, one per line. Without class flags all classes are used.");
+        System.err.println("--mmap pre-sizes FILE and fills it through memory-mapped windows.");
+        System.err.println("--unique guarantees no password appears twice in the output.");
+        System.err.println("--breached skips passwords found in a sorted binary SHA-1 hash file.");
+        System.err.println("--metrics prints generator counters and latency percentiles to stderr at exit.");
+        System.err.println("--encrypt writes an AES-GCM encrypted export; the passphrase comes from");
+        System.err.println("          " + PASSPHRASE_ENV + " or is asked for on the terminal.");
+        System.err.println("       App --decrypt FILE [--out FILE|-]");
+        System.err.println("Decrypts an --encrypt export.");
+        System.err.println("       App --wordlist FILE [--words W] [--separator S] [--count N] [--out FILE|-]");
+        System.err.println("Writes N passphrases of W words (default 6) drawn from a one-word-per-line list.");
+    }
 }
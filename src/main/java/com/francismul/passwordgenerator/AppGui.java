@@ -2,19 +2,35 @@ package com.francismul.passwordgenerator;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
 import javax.swing.plaf.basic.BasicSliderUI;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.datatransfer.StringSelection;
 import java.awt.datatransfer.Clipboard;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.security.SecureRandom;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Enhanced Equalizer-inspired dark themed password generator GUI.
@@ -31,15 +47,17 @@ public class AppGui extends JFrame {
     private final JCheckBox includeNumbers = styledCheck("Numbers");
     private final JCheckBox includeSymbols = styledCheck("Symbols");
     private final JButton generateBtn = glowButton("GENERATE");
-    private final JLabel passwordLabel = new JLabel("Click Generate to create password", SwingConstants.CENTER);
+    private final RevealLabel passwordLabel = new RevealLabel("Click Generate to create password");
     private final CustomProgressBar strengthBar = new CustomProgressBar(0, 100);
     private final JLabel strengthText = new JLabel("Strength: Ready to generate");
     private final JButton themeToggle = smallButton("☀ Light");
     private final JButton saveBtn = smallButton("💾 Save");
     private final JButton copyBtn = smallButton("📋 Copy");
     private final JButton historyBtn = smallButton("📜 History");
-    private final Deque<String> history = new ArrayDeque<>();
-    private final JPanel historyListPanel = new JPanel();
+    private final JButton bulkBtn = smallButton("📦 Bulk");
+    private final HistoryListModel history = HistoryListModel.fromSystemProperty();
+    private final HistoryStore historyStore = openHistoryStore();
+    private boolean historyFailed; // set once the store's writer has failed; EDT only
 
     // Theme colors
     private final Color neonAccent = new Color(0, 255, 200);
@@ -49,11 +67,32 @@ public class AppGui extends JFrame {
     private final Color neonSuccess = new Color(100, 255, 100);
     private boolean darkTheme = true;
 
-    private javax.swing.Timer glitchTimer;
-    private javax.swing.Timer pulseTimer;
+    // Every effect runs on this one frame clock, keyed so a new reveal or toast replaces the old one
+    private final AnimationScheduler animations = new AnimationScheduler(this);
     private String targetPassword = "";
-    private static final SecureRandom RAND = new SecureRandom();
     private int pulseValue = 0;
+    private char[] revealBuffer = new char[64];
+    private Color[] highlightRamp;
+    private Color highlightBase;
+
+    private static final int REVEAL_FRAMES = 30;
+    private static final int HIGHLIGHT_FRAMES = 42;
+    private static final int TOAST_FADE_FRAMES = 1000 / AnimationScheduler.FRAME_MS;
+    private static final Color REVEAL_LIGHT = new Color(40, 40, 40);
+    private static final Color SETTLED_LIGHT = new Color(20, 20, 20);
+    private static final char[] GLITCH_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!@#$%^&*()_+-=[]{}|;:,.<>?█▓▒░"
+            .toCharArray();
+    // Pulse alpha per pulseValue, built once so painting never creates a composite per frame
+    private static final AlphaComposite[] BUTTON_PULSE = pulseComposites(0.7f, 0.3f, 0.15);
+    private static final AlphaComposite[] BORDER_PULSE = pulseComposites(0.3f, 0.4f, 0.1);
+    private static final AlphaComposite BUTTON_EDGE = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.85f);
+    private static final Color BUTTON_TOP = new Color(0, 80, 80);
+    private static final Color BUTTON_BOTTOM = new Color(0, 120, 120);
+    // Generation, strength scoring and file I/O run on workers so the EDT never waits on the RNG or disk
+    private SwingWorker<Generated, Void> generateWorker;
+
+    private record Generated(String password, double bits) {
+    }
 
     public AppGui() {
         super("🔐 Quantum Password Generator");
@@ -65,7 +104,6 @@ public class AppGui extends JFrame {
         initSlider();
         initPasswordDisplay();
         initStrengthBar();
-        initHistoryPanel();
         startPulseAnimation();
 
         JPanel controls = buildControlsColumn();
@@ -87,14 +125,25 @@ public class AppGui extends JFrame {
         includeNumbers.setSelected(true);
         includeSymbols.setSelected(true);
         updateGenerateState();
+        loadStoredHistory();
     }
 
+    // Every third frame (120 ms) keeps the pulse no faster than the old 100 ms timer's repaints
     private void startPulseAnimation() {
-        pulseTimer = new javax.swing.Timer(100, e -> {
-            pulseValue = (pulseValue + 5) % 100;
+        animations.play("pulse", 3, () -> {
+            pulseValue = (pulseValue + 6) % 100;
             generateBtn.repaint();
+            return true;
         });
-        pulseTimer.start();
+    }
+
+    private static AlphaComposite[] pulseComposites(float base, float swing, double rate) {
+        AlphaComposite[] out = new AlphaComposite[100];
+        for (int i = 0; i < out.length; i++) {
+            float alpha = Math.max(0f, Math.min(1f, base + swing * (float) Math.sin(i * rate)));
+            out[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha);
+        }
+        return out;
     }
 
     private void applyGlobalFonts() {
@@ -136,14 +185,6 @@ public class AppGui extends JFrame {
         strengthBar.setOpaque(false);
     }
 
-    private void initHistoryPanel() {
-        historyListPanel.setLayout(new BoxLayout(historyListPanel, BoxLayout.Y_AXIS));
-        JScrollPane scroll = new JScrollPane(historyListPanel);
-        scroll.setPreferredSize(new Dimension(240, 160));
-        scroll.setBorder(BorderFactory.createLineBorder(new Color(60, 60, 60)));
-        historyListPanel.setBorder(new EmptyBorder(10, 5, 5, 5));
-    }
-
     private JPanel buildControlsColumn() {
         JPanel side = new JPanel();
         side.setLayout(new BoxLayout(side, BoxLayout.Y_AXIS));
@@ -190,6 +231,7 @@ public class AppGui extends JFrame {
         buttonRow.add(copyBtn);
         buttonRow.add(saveBtn);
         buttonRow.add(historyBtn);
+        buttonRow.add(bulkBtn);
         side.add(buttonRow);
 
         return side;
@@ -209,9 +251,7 @@ public class AppGui extends JFrame {
                 g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
                 // Animated border
-                float alpha = 0.3f + 0.4f * (float) Math.sin(pulseValue * 0.1);
-                alpha = Math.max(0f, Math.min(1f, alpha));
-                g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+                g2.setComposite(BORDER_PULSE[pulseValue]);
                 g2.setColor(neonAccent);
                 g2.setStroke(new BasicStroke(2f));
                 g2.drawRoundRect(5, 5, getWidth() - 10, getHeight() - 10, 15, 15);
@@ -290,13 +330,10 @@ public class AppGui extends JFrame {
             protected void paintComponent(Graphics g) {
                 Graphics2D g2 = (Graphics2D) g.create();
                 g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                float alpha = 0.7f + 0.3f * (float) Math.sin(pulseValue * 0.15);
-                g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-                GradientPaint gp = new GradientPaint(0, 0, new Color(0, 80, 80), 0, getHeight(),
-                        new Color(0, 120, 120));
-                g2.setPaint(gp);
+                g2.setComposite(BUTTON_PULSE[pulseValue]);
+                g2.setPaint(new GradientPaint(0, 0, BUTTON_TOP, 0, getHeight(), BUTTON_BOTTOM));
                 g2.fillRoundRect(0, 0, getWidth(), getHeight(), 10, 10);
-                g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.85f));
+                g2.setComposite(BUTTON_EDGE);
                 g2.setColor(neonAccent);
                 g2.setStroke(new BasicStroke(2f));
                 g2.drawRoundRect(1, 1, getWidth() - 2, getHeight() - 2, 10, 10);
@@ -381,6 +418,70 @@ public class AppGui extends JFrame {
         return l;
     }
 
+    /** Centered label that can paint a shared char buffer in place of its text, without a String per frame. */
+    private static final class RevealLabel extends JLabel {
+        private char[] chars;
+        private int length;
+
+        RevealLabel(String text) {
+            super(text, SwingConstants.CENTER);
+        }
+
+        void showChars(char[] buf, int len) {
+            chars = buf;
+            length = len;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (chars == null) {
+                super.paintComponent(g);
+                return;
+            }
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(getFont());
+            g2.setColor(getForeground());
+            FontMetrics fm = g2.getFontMetrics();
+            int x = (getWidth() - fm.charsWidth(chars, 0, length)) / 2;
+            int y = (getHeight() + fm.getAscent() - fm.getDescent()) / 2;
+            g2.drawChars(chars, 0, length, x, y);
+            g2.dispose();
+        }
+    }
+
+    /** One reusable row component for every history entry: position number and password. */
+    private class HistoryCellRenderer extends JPanel implements ListCellRenderer<String> {
+        private final JLabel indexLabel = new JLabel();
+        private final JLabel item = new JLabel();
+        int hover = -1;
+
+        HistoryCellRenderer() {
+            super(new BorderLayout());
+            setOpaque(false);
+            setBorder(new EmptyBorder(5, 8, 5, 8));
+            indexLabel.setFont(new Font("Segoe UI", Font.BOLD, 10));
+            indexLabel.setForeground(new Color(120, 120, 120));
+            indexLabel.setPreferredSize(new Dimension(44, 20));
+            item.setFont(new Font("JetBrains Mono", Font.PLAIN, 12));
+            add(indexLabel, BorderLayout.WEST);
+            add(item, BorderLayout.CENTER);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends String> list, String value, int index,
+                boolean isSelected, boolean cellHasFocus) {
+            indexLabel.setText(Integer.toString(index + 1));
+            item.setText(value);
+            if (index == hover)
+                item.setForeground(darkTheme ? neonAccentAlt : new Color(0, 90, 160));
+            else
+                item.setForeground(darkTheme ? new Color(180, 180, 180) : new Color(50, 50, 50));
+            return this;
+        }
+    }
+
     // Custom Progress Bar with cool animations
     private class CustomProgressBar extends JProgressBar {
         public CustomProgressBar(int min, int max) {
@@ -461,6 +562,7 @@ public class AppGui extends JFrame {
         generateBtn.addActionListener(e -> doGenerate());
         copyBtn.addActionListener(e -> copyCurrentPassword());
         historyBtn.addActionListener(e -> openHistoryDialog());
+        bulkBtn.addActionListener(e -> openBulkDialog());
 
         themeToggle.addActionListener(e -> {
             darkTheme = !darkTheme;
@@ -509,26 +611,49 @@ public class AppGui extends JFrame {
     }
 
     private void doGenerate() {
+        // Rapid Enter presses while the RNG is still seeding are dropped rather than queued
+        if (generateWorker != null && !generateWorker.isDone())
+            return;
+        int length = lengthSlider.getValue();
+        CharsetPolicy policy;
         try {
-            int length = lengthSlider.getValue();
-            boolean lower = includeLetters.isSelected() && toggleLower.isSelected();
-            boolean upper = includeLetters.isSelected() && toggleUpper.isSelected();
-            boolean digits = includeNumbers.isSelected();
-            boolean symbols = includeSymbols.isSelected();
-
-            String pwd = PasswordGenerator.generate(length, lower, upper, digits, symbols);
-            targetPassword = pwd;
-            addToHistory(pwd);
-            animatePasswordReveal(pwd);
-            updateStrength(pwd, lower, upper, digits, symbols);
-
+            policy = selectedPolicy();
         } catch (IllegalArgumentException ex) {
             JOptionPane.showMessageDialog(this, ex.getMessage(), "Generation Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+        generateWorker = new SwingWorker<>() {
+            @Override
+            protected Generated doInBackground() {
+                String pwd = PasswordGenerator.generate(length, policy);
+                return new Generated(pwd, StrengthEstimator.standard().bits(pwd));
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    Generated g = get();
+                    targetPassword = g.password();
+                    addToHistory(g.password());
+                    animatePasswordReveal(g.password());
+                    updateStrength(g.bits());
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(AppGui.this, cause.getMessage(), "Generation Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        generateWorker.execute();
     }
 
-    private void updateStrength(String pwd, boolean lower, boolean upper, boolean digits, boolean symbols) {
-        double bits = PasswordGenerator.entropyBits(pwd, lower, upper, digits, symbols);
+    private CharsetPolicy selectedPolicy() {
+        boolean lower = includeLetters.isSelected() && toggleLower.isSelected();
+        boolean upper = includeLetters.isSelected() && toggleUpper.isSelected();
+        return CharsetPolicy.of(lower, upper, includeNumbers.isSelected(), includeSymbols.isSelected());
+    }
+
+    private void updateStrength(double bits) {
         int maxBits = 256;
         int percent = (int) Math.min(100, Math.round((bits / maxBits) * 100));
 
@@ -557,126 +682,190 @@ public class AppGui extends JFrame {
             strengthColor = neonAccent;
         }
 
-        strengthText.setText(String.format("%s (%.1f bits entropy)", strengthLevel, bits));
+        strengthText.setText(String.format("%s (%.1f bits to guess)", strengthLevel, bits));
         strengthText.setForeground(strengthColor);
     }
 
     private void animatePasswordReveal(String pwd) {
-        if (glitchTimer != null && glitchTimer.isRunning())
-            glitchTimer.stop();
-
-        final int steps = 30;
-        final char[] finalChars = pwd.toCharArray();
-        final char[] working = new char[finalChars.length];
-        Arrays.fill(working, '█');
-
-        passwordLabel.setForeground(darkTheme ? neonAccent : new Color(40, 40, 40));
-
-        glitchTimer = new javax.swing.Timer(40, null);
-        glitchTimer.addActionListener(new ActionListener() {
-            int tick = 0;
+        final int len = pwd.length();
+        if (revealBuffer.length < len)
+            revealBuffer = new char[len];
+        final char[] working = revealBuffer;
+        Arrays.fill(working, 0, len, '█');
+        final Color settled = darkTheme ? neonAccent : SETTLED_LIGHT;
+        final Color[] ramp = highlightRamp(settled);
+
+        // The real text sets the layout; frames paint the scrambled buffer over it until revealed
+        passwordLabel.setText(pwd);
+        passwordLabel.setForeground(darkTheme ? neonAccent : REVEAL_LIGHT);
+        passwordLabel.showChars(working, len);
+
+        animations.play("reveal", new AnimationScheduler.Animation() {
+            int frame = 0;
 
             @Override
-            public void actionPerformed(ActionEvent e) {
-                double progress = Math.min(1.0, tick / (double) steps);
-                int reveal = (int) (finalChars.length * Math.pow(progress, 0.7)); // Ease-out curve
-
-                for (int i = 0; i < finalChars.length; i++) {
-                    if (i < reveal) {
-                        working[i] = finalChars[i];
-                    } else if (i < reveal + 3) {
-                        working[i] = randomGlitchChar();
-                    } else {
-                        working[i] = '█';
+            public boolean frame() {
+                if (frame < REVEAL_FRAMES) {
+                    double progress = frame / (double) REVEAL_FRAMES;
+                    int reveal = (int) (len * Math.pow(progress, 0.7)); // Ease-out curve
+                    for (int i = 0; i < len; i++) {
+                        if (i < reveal)
+                            working[i] = pwd.charAt(i);
+                        else if (i < reveal + 3)
+                            working[i] = GLITCH_CHARS[ThreadLocalRandom.current().nextInt(GLITCH_CHARS.length)];
+                        else
+                            working[i] = '█';
                     }
+                    passwordLabel.showChars(working, len);
+                } else if (frame == REVEAL_FRAMES) {
+                    passwordLabel.showChars(null, 0);
+                    passwordLabel.setForeground(ramp[0]);
+                } else if (frame - REVEAL_FRAMES < ramp.length) {
+                    // Brief highlight fading back to the settled colour
+                    passwordLabel.setForeground(ramp[frame - REVEAL_FRAMES]);
+                } else {
+                    passwordLabel.setForeground(settled);
+                    return false;
                 }
-
-                passwordLabel.setText(new String(working));
-
-                if (tick++ >= steps) {
-                    passwordLabel.setText(pwd);
-                    passwordLabel.setForeground(darkTheme ? neonAccent : new Color(20, 20, 20));
-                    glitchTimer.stop();
-
-                    // Brief highlight effect
-                    javax.swing.Timer highlight = new javax.swing.Timer(100, null);
-                    final int[] fade = { 255 };
-                    highlight.addActionListener(ev -> {
-                        fade[0] -= 15;
-                        if (fade[0] <= 0) {
-                            passwordLabel.setForeground(darkTheme ? neonAccent : new Color(20, 20, 20));
-                            highlight.stop();
-                        } else {
-                            Color current = darkTheme ? neonAccent : new Color(20, 20, 20);
-                            int alpha = Math.max(0, Math.min(255, fade[0]));
-                            passwordLabel.setForeground(new Color(
-                                    Math.min(255, current.getRed() + alpha / 3),
-                                    Math.min(255, current.getGreen() + alpha / 3),
-                                    Math.min(255, current.getBlue() + alpha / 3)));
-                        }
-                        passwordLabel.repaint();
-                    });
-                    highlight.start();
-                }
+                frame++;
+                return true;
             }
         });
-        glitchTimer.start();
     }
 
-    private char randomGlitchChar() {
-        String pool = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!@#$%^&*()_+-=[]{}|;:,.<>?█▓▒░";
-        return pool.charAt(RAND.nextInt(pool.length()));
+    /** Highlight fade for {@code base}, rebuilt only when the theme colour changes. */
+    private Color[] highlightRamp(Color base) {
+        if (!base.equals(highlightBase)) {
+            Color bright = new Color(Math.min(255, base.getRed() + 85), Math.min(255, base.getGreen() + 85),
+                    Math.min(255, base.getBlue() + 85));
+            highlightRamp = AnimationScheduler.ramp(bright, base, HIGHLIGHT_FRAMES);
+            highlightBase = base;
+        }
+        return highlightRamp;
     }
 
     private void addToHistory(String pwd) {
         if (pwd.isEmpty())
             return;
-        history.addFirst(pwd);
-        while (history.size() > 10) // Increased history size
-            history.removeLast();
-        refreshHistoryUI();
-    }
-
-    private void refreshHistoryUI() {
-        // retained for dialog population
-        historyListPanel.removeAll();
-        int index = 1;
-        for (String p : history) {
-            JPanel itemPanel = new JPanel(new BorderLayout());
-            itemPanel.setOpaque(false);
-            itemPanel.setBorder(new EmptyBorder(5, 8, 5, 8));
-            JLabel indexLabel = new JLabel(String.valueOf(index++));
-            indexLabel.setFont(new Font("Segoe UI", Font.BOLD, 10));
-            indexLabel.setForeground(new Color(120, 120, 120));
-            indexLabel.setPreferredSize(new Dimension(20, 20));
-            JLabel item = new JLabel(p);
-            item.setFont(new Font("JetBrains Mono", Font.PLAIN, 12));
-            item.setForeground(darkTheme ? new Color(180, 180, 180) : new Color(50, 50, 50));
-            item.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-            item.setToolTipText("Click to copy: " + p);
-            item.addMouseListener(new MouseAdapter() {
-                @Override
-                public void mouseEntered(MouseEvent e) {
-                    item.setForeground(darkTheme ? neonAccentAlt : new Color(0, 90, 160));
-                }
+        history.add(pwd);
+        if (historyStore == null || historyFailed)
+            return;
+        try {
+            historyStore.append(pwd);
+        } catch (IllegalStateException e) {
+            // The writer has failed (disk full, I/O error); keep generating, stop persisting, say so once
+            historyFailed = true;
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            JOptionPane.showMessageDialog(this, "History will no longer be saved: " + cause.getMessage(),
+                    "History Error", JOptionPane.WARNING_MESSAGE);
+        }
+    }
 
-                @Override
-                public void mouseExited(MouseEvent e) {
-                    item.setForeground(darkTheme ? new Color(180, 180, 180) : new Color(50, 50, 50));
-                }
+    // Opt-in persistence; the store writes and fsyncs on its own thread and is drained on exit
+    private static HistoryStore openHistoryStore() {
+        try {
+            HistoryStore store = HistoryStore.fromSystemProperty();
+            if (store != null) {
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        store.close();
+                    } catch (IOException e) {
+                        System.err.println("History was not fully saved: " + e.getMessage());
+                    }
+                }, "history-close"));
+            }
+            return store;
+        } catch (IOException e) {
+            System.err.println("History will not be saved: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Reads only the newest entries the model can hold, off the EDT
+    private void loadStoredHistory() {
+        if (historyStore == null)
+            return;
+        // Everything past this count is generated while loading and already in the model
+        long storedBefore = historyStore.size();
+        new SwingWorker<List<String>, Void>() {
+            @Override
+            protected List<String> doInBackground() throws IOException {
+                return historyStore.tail(history.capacity(), storedBefore);
+            }
 
-                @Override
-                public void mouseClicked(MouseEvent e) {
-                    copyToClipboard(p);
-                    showTransientOverlay("📋 Copied!", item, 1200);
+            @Override
+            protected void done() {
+                try {
+                    List<String> stored = get();
+                    // Anything generated while loading stays newest
+                    List<String> fresh = history.snapshot();
+                    history.clear();
+                    for (String pwd : stored)
+                        history.add(pwd);
+                    for (int i = fresh.size() - 1; i >= 0; i--)
+                        history.add(fresh.get(i));
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    System.err.println("Could not load history: " + cause.getMessage());
                 }
-            });
-            itemPanel.add(indexLabel, BorderLayout.WEST);
-            itemPanel.add(item, BorderLayout.CENTER);
-            historyListPanel.add(itemPanel);
-        }
-        historyListPanel.revalidate();
-        historyListPanel.repaint();
+            }
+        }.execute();
+    }
+
+    // Fixed cell height plus one shared renderer keeps cost proportional to the visible rows
+    private JList<String> historyList() {
+        JList<String> list = new JList<>(history);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setOpaque(false);
+        list.setFixedCellHeight(26);
+        list.setBorder(new EmptyBorder(10, 5, 5, 5));
+        HistoryCellRenderer renderer = new HistoryCellRenderer();
+        list.setCellRenderer(renderer);
+        list.setToolTipText("Click to copy");
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHover(row(e));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHover(-1);
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = row(e);
+                if (row < 0)
+                    return;
+                copyToClipboard(history.getElementAt(row));
+                showTransientOverlay("📋 Copied!", list, 1200);
+            }
+
+            private int row(MouseEvent e) {
+                int row = list.locationToIndex(e.getPoint());
+                return row >= 0 && list.getCellBounds(row, row).contains(e.getPoint()) ? row : -1;
+            }
+
+            private void setHover(int row) {
+                if (row == renderer.hover)
+                    return;
+                repaintRow(renderer.hover);
+                renderer.hover = row;
+                repaintRow(row);
+            }
+
+            private void repaintRow(int row) {
+                if (row < 0 || row >= history.getSize())
+                    return;
+                Rectangle r = list.getCellBounds(row, row);
+                if (r != null)
+                    list.repaint(r);
+            }
+        };
+        list.addMouseListener(mouse);
+        list.addMouseMotionListener(mouse);
+        return list;
     }
 
     private void openHistoryDialog() {
@@ -684,14 +873,60 @@ public class AppGui extends JFrame {
             JOptionPane.showMessageDialog(this, "No history yet.", "History", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
-        refreshHistoryUI();
         JDialog dlg = new JDialog(this, "Password History", false);
         dlg.setLayout(new BorderLayout());
-        JScrollPane scroll = new JScrollPane(historyListPanel);
+        JList<String> list = historyList();
+        JScrollPane scroll = new JScrollPane(list);
         scroll.setPreferredSize(new Dimension(480, 260));
         scroll.getVerticalScrollBar().setUnitIncrement(16);
         dlg.add(scroll, BorderLayout.CENTER);
 
+        JTextField search = new JTextField(history.filter(), 18);
+        search.setToolTipText("Show only passwords containing this text");
+        JLabel count = new JLabel();
+        Runnable updateCount = () -> count.setText(history.getSize() + " of " + history.totalSize());
+        search.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                history.setFilter(search.getText());
+                updateCount.run();
+            }
+        });
+        ListDataListener countListener = new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                updateCount.run();
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                updateCount.run();
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                updateCount.run();
+            }
+        };
+        history.addListDataListener(countListener);
+        updateCount.run();
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        top.setOpaque(false);
+        top.add(new JLabel("🔍"));
+        top.add(search);
+        top.add(count);
+        dlg.add(top, BorderLayout.NORTH);
+
         JPanel bottom = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         bottom.setOpaque(false);
         JButton saveHistoryBtn = smallButton("💾 Save");
@@ -704,6 +939,16 @@ public class AppGui extends JFrame {
         bottom.add(closeBtn);
         dlg.add(bottom, BorderLayout.SOUTH);
 
+        // The model outlives the dialog: drop its listeners and the filter when it closes
+        dlg.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                history.removeListDataListener(countListener);
+                list.setModel(new DefaultListModel<>());
+                history.setFilter("");
+            }
+        });
+        dlg.setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         dlg.getContentPane().setBackground(getContentPane().getBackground());
         dlg.pack();
         dlg.setLocationRelativeTo(this);
@@ -741,34 +986,29 @@ public class AppGui extends JFrame {
         toast.setLocation(p.x + relative.getWidth() / 2 - toast.getWidth() / 2, p.y - toast.getHeight() - 10);
         toast.setVisible(true);
 
-        // Fade out animation
-        javax.swing.Timer fadeTimer = new javax.swing.Timer(50, null);
-        final float[] alpha = { 1.0f };
-        fadeTimer.addActionListener(e -> {
-            alpha[0] -= 0.05f;
-            if (alpha[0] <= 0) {
-                toast.setVisible(false);
-                toast.dispose();
-                fadeTimer.stop();
-            } else {
-                toast.setOpacity(Math.max(0, alpha[0]));
-            }
-        });
+        // One toast at a time: a newer toast replaces this one, disposing it
+        final int frames = Math.max(1, durationMs / AnimationScheduler.FRAME_MS);
+        animations.play("toast", new AnimationScheduler.Animation() {
+            int frame = 0;
 
-        new javax.swing.Timer(durationMs - 1000, ev -> fadeTimer.start()) {
-            {
-                setRepeats(false);
+            @Override
+            public boolean frame() {
+                int left = frames - ++frame;
+                if (left <= 0) {
+                    stopped();
+                    return false;
+                }
+                if (left < TOAST_FADE_FRAMES)
+                    toast.setOpacity(left / (float) TOAST_FADE_FRAMES);
+                return true;
             }
-        }.start();
 
-        new javax.swing.Timer(durationMs, ev -> {
-            toast.setVisible(false);
-            toast.dispose();
-        }) {
-            {
-                setRepeats(false);
+            @Override
+            public void stopped() {
+                toast.setVisible(false);
+                toast.dispose();
             }
-        }.start();
+        });
     }
 
     private void savePasswords() {
@@ -781,35 +1021,295 @@ public class AppGui extends JFrame {
         JFileChooser chooser = new JFileChooser();
         chooser.setSelectedFile(new File("secure_passwords_" +
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm")) + ".txt"));
+        JCheckBox encrypt = new JCheckBox("🔒 Encrypt");
+        encrypt.setToolTipText("AES-GCM with a passphrase; read back with App --decrypt");
+        chooser.setAccessory(encrypt);
 
-        if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            File f = chooser.getSelectedFile();
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(f, true))) {
-                bw.write("=".repeat(60));
-                bw.newLine();
-                bw.write("🔐 Quantum Password Generator - Exported Passwords");
-                bw.newLine();
-                bw.write("Generated: " + LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-                bw.newLine();
-                bw.write("=".repeat(60));
-                bw.newLine();
-                bw.newLine();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+            return;
+        char[] passphrase = encrypt.isSelected() ? askPassphrase(this) : null;
+        if (encrypt.isSelected() && passphrase == null)
+            return;
+        File f = passphrase == null ? chooser.getSelectedFile() : encryptedName(chooser.getSelectedFile());
+        List<String> snapshot = history.snapshot();
+        saveBtn.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                try {
+                    writeExport(f, snapshot, passphrase);
+                } finally {
+                    if (passphrase != null)
+                        Arrays.fill(passphrase, '\0');
+                }
+                return null;
+            }
 
-                int index = 1;
-                for (String p : history) {
-                    bw.write(String.format("%d. %s", index++, p));
-                    bw.newLine();
+            @Override
+            protected void done() {
+                saveBtn.setEnabled(true);
+                try {
+                    get();
+                    showTransientOverlay("💾 Saved to " + f.getName(), saveBtn, 2000);
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(AppGui.this, "❌ Error saving file: " + cause.getMessage(),
+                            "Save Error", JOptionPane.ERROR_MESSAGE);
                 }
+            }
+        }.execute();
+    }
 
+    // Plain exports append to an existing file; encrypted ones are a single stream, so they replace it
+    private static void writeExport(File f, List<String> passwords, char[] passphrase) throws IOException {
+        OutputStream out = passphrase == null ? new FileOutputStream(f, true)
+                : EncryptedExport.create(new BufferedOutputStream(new FileOutputStream(f)), passphrase);
+        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            bw.write("=".repeat(60));
+            bw.newLine();
+            bw.write("🔐 Quantum Password Generator - Exported Passwords");
+            bw.newLine();
+            bw.write("Generated: " + LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            bw.newLine();
+            bw.write("=".repeat(60));
+            bw.newLine();
+            bw.newLine();
+
+            int index = 1;
+            for (String p : passwords) {
+                bw.write(String.format("%d. %s", index++, p));
                 bw.newLine();
-                bw.write("⚠️  SECURITY NOTE: Store this file securely and delete when no longer needed.");
-                bw.newLine();
+            }
+
+            bw.newLine();
+            bw.write("⚠️  SECURITY NOTE: Store this file securely and delete when no longer needed.");
+            bw.newLine();
+        }
+    }
+
+    /** Asks for a passphrase twice; null when cancelled, empty or mismatched. */
+    private static char[] askPassphrase(Component parent) {
+        JPasswordField first = new JPasswordField(20);
+        JPasswordField second = new JPasswordField(20);
+        JPanel panel = new JPanel(new GridLayout(0, 1, 4, 4));
+        panel.add(new JLabel("Passphrase"));
+        panel.add(first);
+        panel.add(new JLabel("Repeat passphrase"));
+        panel.add(second);
+        try {
+            if (JOptionPane.showConfirmDialog(parent, panel, "Encrypt Export", JOptionPane.OK_CANCEL_OPTION,
+                    JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION)
+                return null;
+            char[] a = first.getPassword();
+            char[] b = second.getPassword();
+            boolean ok = a.length > 0 && Arrays.equals(a, b);
+            Arrays.fill(b, '\0');
+            if (ok)
+                return a;
+            Arrays.fill(a, '\0');
+            JOptionPane.showMessageDialog(parent,
+                    a.length == 0 ? "The passphrase is empty." : "Passphrases do not match.", "Encrypt Export",
+                    JOptionPane.ERROR_MESSAGE);
+            return null;
+        } finally {
+            first.setText("");
+            second.setText("");
+        }
+    }
 
-                showTransientOverlay("💾 Saved to " + f.getName(), saveBtn, 2000);
+    private static File encryptedName(File f) {
+        return f.getName().endsWith(EncryptedExport.EXTENSION) ? f
+                : new File(f.getPath() + EncryptedExport.EXTENSION);
+    }
 
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "❌ Error saving file: " + ex.getMessage(),
-                        "Save Error", JOptionPane.ERROR_MESSAGE);
+    // ===== Bulk generation =====
+    private void openBulkDialog() {
+        JDialog dlg = new JDialog(this, "Bulk Generate", false);
+        dlg.setLayout(new BorderLayout());
+        JPanel form = new JPanel(new GridBagLayout());
+        form.setBorder(new EmptyBorder(15, 15, 10, 15));
+        GridBagConstraints gc = new GridBagConstraints();
+        gc.insets = new Insets(4, 4, 4, 4);
+        gc.anchor = GridBagConstraints.WEST;
+        gc.fill = GridBagConstraints.HORIZONTAL;
+
+        JSpinner countSpinner = new JSpinner(new SpinnerNumberModel(Long.valueOf(100_000), Long.valueOf(1),
+                Long.valueOf(1_000_000_000), Long.valueOf(10_000)));
+        JTextField fileField = new JTextField(new File("bulk_passwords.txt").getAbsolutePath(), 28);
+        JButton browse = smallButton("…");
+        JCheckBox encrypt = new JCheckBox("🔒 Encrypt (AES-GCM)");
+        JProgressBar progress = new JProgressBar(0, 1000);
+        progress.setStringPainted(true);
+        JLabel rate = new JLabel("Length and character sets follow the main window.");
+        JButton start = smallButton("▶ Start");
+        JButton cancel = smallButton("✖ Cancel");
+        cancel.setEnabled(false);
+
+        gc.gridx = 0;
+        gc.gridy = 0;
+        form.add(new JLabel("Passwords"), gc);
+        gc.gridx = 1;
+        form.add(countSpinner, gc);
+        gc.gridx = 0;
+        gc.gridy = 1;
+        form.add(new JLabel("Output file"), gc);
+        gc.gridx = 1;
+        form.add(fileField, gc);
+        gc.gridx = 2;
+        form.add(browse, gc);
+        gc.gridx = 1;
+        gc.gridy = 2;
+        form.add(encrypt, gc);
+        gc.gridx = 0;
+        gc.gridy = 3;
+        gc.gridwidth = 3;
+        form.add(progress, gc);
+        gc.gridy = 4;
+        form.add(rate, gc);
+        dlg.add(form, BorderLayout.CENTER);
+
+        JPanel bottom = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        bottom.add(start);
+        bottom.add(cancel);
+        dlg.add(bottom, BorderLayout.SOUTH);
+
+        browse.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setSelectedFile(new File(fileField.getText()));
+            if (chooser.showSaveDialog(dlg) == JFileChooser.APPROVE_OPTION)
+                fileField.setText(chooser.getSelectedFile().getAbsolutePath());
+        });
+        BulkWorker[] running = new BulkWorker[1];
+        start.addActionListener(e -> {
+            CharsetPolicy policy;
+            try {
+                policy = selectedPolicy();
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(dlg, ex.getMessage(), "Bulk Generate", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            long count = (Long) countSpinner.getValue();
+            char[] passphrase = encrypt.isSelected() ? askPassphrase(dlg) : null;
+            if (encrypt.isSelected() && passphrase == null)
+                return;
+            File file = new File(fileField.getText());
+            if (passphrase != null) {
+                file = encryptedName(file);
+                fileField.setText(file.getAbsolutePath());
+            }
+            BulkWorker worker = new BulkWorker(file, count, lengthSlider.getValue(), policy, passphrase, progress,
+                    rate, () -> {
+                        start.setEnabled(true);
+                        cancel.setEnabled(false);
+                    });
+            running[0] = worker;
+            start.setEnabled(false);
+            cancel.setEnabled(true);
+            progress.setValue(0);
+            worker.execute();
+        });
+        cancel.addActionListener(e -> {
+            if (running[0] != null)
+                running[0].cancel(false);
+        });
+        dlg.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (running[0] != null)
+                    running[0].cancel(false);
+            }
+        });
+
+        dlg.pack();
+        dlg.setLocationRelativeTo(this);
+        dlg.setVisible(true);
+    }
+
+    /**
+     * Streams passwords to a file on the fork-join generator and reports progress in chunks.
+     * Cancellation is checked between chunks; a cancelled or failed run deletes its partial file.
+     */
+    private final class BulkWorker extends SwingWorker<ParallelBatchGenerator.Result, Long> {
+        private final File file;
+        private final long count;
+        private final int length;
+        private final CharsetPolicy policy;
+        private final char[] passphrase;
+        private final JProgressBar progress;
+        private final JLabel rate;
+        private final Runnable onFinish;
+        private final long startNanos = System.nanoTime();
+
+        BulkWorker(File file, long count, int length, CharsetPolicy policy, char[] passphrase,
+                JProgressBar progress, JLabel rate, Runnable onFinish) {
+            this.file = file;
+            this.count = count;
+            this.length = length;
+            this.policy = policy;
+            this.passphrase = passphrase;
+            this.progress = progress;
+            this.rate = rate;
+            this.onFinish = onFinish;
+        }
+
+        @Override
+        protected ParallelBatchGenerator.Result doInBackground() throws IOException {
+            int stride = GeneratorContext.stride(length, true);
+            boolean completed = false;
+            try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                    WritableByteChannel ch = passphrase == null ? out
+                            : EncryptedExport.create(Channels.newOutputStream(out), passphrase);
+                    ParallelBatchGenerator generator = PasswordGenerator
+                            .parallel(Runtime.getRuntime().availableProcessors())) {
+                ParallelBatchGenerator.Result result = generator.generate(count, length, policy, true,
+                        (first, buffer) -> {
+                            if (isCancelled())
+                                throw new CancellationException();
+                            long done = first + buffer.remaining() / stride;
+                            while (buffer.hasRemaining())
+                                ch.write(buffer);
+                            publish(done);
+                        });
+                completed = true;
+                return result;
+            } finally {
+                if (passphrase != null)
+                    Arrays.fill(passphrase, '\0');
+                if (!completed)
+                    Files.deleteIfExists(file.toPath());
+                // done() fires as soon as cancel() is called, so the buttons wait for the real end here
+                SwingUtilities.invokeLater(() -> {
+                    if (isCancelled())
+                        rate.setText("Cancelled; partial file removed.");
+                    onFinish.run();
+                });
+            }
+        }
+
+        @Override
+        protected void process(List<Long> chunks) {
+            long done = chunks.get(chunks.size() - 1);
+            progress.setValue((int) (done * 1000 / count));
+            progress.setString(String.format("%,d / %,d", done, count));
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            rate.setText(String.format("%,.0f passwords/s", seconds == 0 ? 0 : done / seconds));
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                rate.setText("Cancelling…");
+                return;
+            }
+            try {
+                ParallelBatchGenerator.Result r = get();
+                progress.setValue(1000);
+                progress.setString(String.format("%,d / %,d", count, count));
+                rate.setText(String.format("Done: %,.0f passwords/s → %s", r.passwordsPerSecond(), file.getName()));
+            } catch (InterruptedException | ExecutionException ex) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                rate.setText("Error: " + cause.getMessage());
             }
         }
     }
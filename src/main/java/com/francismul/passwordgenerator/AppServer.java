@@ -0,0 +1,244 @@
+package com.francismul.passwordgenerator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP version of the Password Generator.
+ * Listens on the loopback interface only and serves every request on its own virtual thread.
+ *
+ * <pre>
+ * GET /password?length=16&amp;lower&amp;upper&amp;digits&amp;symbols
+ * GET /batch?count=100000&amp;length=32          (streamed, one password per line)
+ * GET /passphrase?words=6&amp;separator=-       (needs --wordlist)
+ * </pre>
+ * Without class parameters all four classes are used.
+ */
+public class AppServer {
+    private static final int BATCH_BUFFER = 64 * 1024;
+    private static final int MAX_LENGTH = 65_536;
+    private static final long MAX_COUNT = 1_000_000;
+    private static final int MAX_WORDS = 1_024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final WordList wordList;
+    // Virtual threads are not reused, so thread-local contexts would refill a fresh entropy block per request
+    private final ConcurrentLinkedQueue<PooledContext> contexts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong streams = new AtomicLong();
+
+    private record PooledContext(RandomSource source, GeneratorContext context) {
+    }
+
+    public AppServer(int port, WordList wordList) throws IOException {
+        this.wordList = wordList;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/password", handler(this::password));
+        server.createContext("/batch", handler(this::batch));
+        server.createContext("/passphrase", handler(this::passphrase));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.close();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void password(HttpExchange ex, Map<String, String> query) throws IOException {
+        int length = intParam(query, "length", 16);
+        CharsetPolicy policy = policy(query);
+        checkLength(length);
+        PooledContext pooled = borrow();
+        String pwd;
+        try {
+            pwd = pooled.context().generate(length, policy);
+        } finally {
+            contexts.offer(pooled);
+        }
+        ex.getResponseHeaders().add("X-Entropy-Bits", String.format("%.1f", PasswordGenerator.entropyBits(pwd, policy)));
+        send(ex, 200, pwd + "\n");
+    }
+
+    private void batch(HttpExchange ex, Map<String, String> query) throws IOException {
+        long count = Long.parseLong(query.getOrDefault("count", "1"));
+        int length = intParam(query, "length", 16);
+        CharsetPolicy policy = policy(query);
+        checkLength(length);
+        checkCount(count);
+        int stride = GeneratorContext.stride(length, true);
+        byte[] buf = new byte[Math.max(stride, BATCH_BUFFER / stride * stride)];
+        ByteBuffer bb = ByteBuffer.wrap(buf);
+        int perChunk = buf.length / stride;
+        ex.getResponseHeaders().add("Content-Type", "text/plain; charset=US-ASCII");
+        ex.getResponseHeaders().add("Cache-Control", "no-store");
+        // Length 0 selects chunked transfer, so the batch is never held in memory
+        ex.sendResponseHeaders(200, 0);
+        PooledContext pooled = borrow();
+        try (OutputStream os = ex.getResponseBody()) {
+            for (long done = 0; done < count; done += perChunk) {
+                int n = (int) Math.min(perChunk, count - done);
+                bb.clear();
+                pooled.context().generateBatch(n, length, policy, bb, true);
+                os.write(buf, 0, bb.position());
+            }
+        } finally {
+            contexts.offer(pooled);
+            Arrays.fill(buf, (byte) 0);
+        }
+    }
+
+    private void passphrase(HttpExchange ex, Map<String, String> query) throws IOException {
+        if (wordList == null) {
+            send(ex, 404, "Server was started without --wordlist\n");
+            return;
+        }
+        int words = intParam(query, "words", 6);
+        String separator = query.getOrDefault("separator", "-");
+        if (words < 1 || words > MAX_WORDS)
+            throw new IllegalArgumentException("Words must be between 1 and " + MAX_WORDS);
+        PooledContext pooled = borrow();
+        String phrase;
+        try {
+            phrase = pooled.context().generatePassphrase(words, separator, wordList);
+        } finally {
+            contexts.offer(pooled);
+        }
+        ex.getResponseHeaders().add("X-Entropy-Bits",
+                String.format("%.1f", PasswordGenerator.entropyBits(words, wordList)));
+        send(ex, 200, phrase + "\n");
+    }
+
+    // Same rules as PasswordGenerator.context(): contexts split from a replaced source are
+    // dropped, and the current filter is applied on every borrow
+    private PooledContext borrow() {
+        RandomSource source = PasswordGenerator.randomSource();
+        PooledContext pooled;
+        do {
+            pooled = contexts.poll();
+        } while (pooled != null && pooled.source() != source);
+        if (pooled == null)
+            pooled = new PooledContext(source, new GeneratorContext(source.split(Streams.SERVER + streams.getAndIncrement())));
+        pooled.context().setFilter(PasswordGenerator.filter());
+        return pooled;
+    }
+
+    private interface Endpoint {
+        void handle(HttpExchange ex, Map<String, String> query) throws IOException;
+    }
+
+    private static HttpHandler handler(Endpoint endpoint) {
+        return ex -> {
+            try {
+                if (!ex.getRequestMethod().equals("GET")) {
+                    send(ex, 405, "Only GET is supported\n");
+                    return;
+                }
+                endpoint.handle(ex, parseQuery(ex.getRequestURI().getRawQuery()));
+            } catch (IllegalArgumentException e) {
+                send(ex, 400, "Error: " + e.getMessage() + "\n");
+            } finally {
+                ex.close();
+            }
+        };
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> query = new HashMap<>();
+        if (raw == null || raw.isEmpty())
+            return query;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "true" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.put(key, value);
+        }
+        return query;
+    }
+
+    private static CharsetPolicy policy(Map<String, String> query) {
+        boolean lower = flag(query, "lower");
+        boolean upper = flag(query, "upper");
+        boolean digits = flag(query, "digits");
+        boolean symbols = flag(query, "symbols");
+        if (!lower && !upper && !digits && !symbols)
+            return CharsetPolicy.of(CharsetPolicy.LOWER | CharsetPolicy.UPPER | CharsetPolicy.DIGITS | CharsetPolicy.SYMBOLS);
+        return CharsetPolicy.of(lower, upper, digits, symbols);
+    }
+
+    private static boolean flag(Map<String, String> query, String name) {
+        String v = query.get(name);
+        return v != null && (v.equals("true") || v.equals("1") || v.equals("yes"));
+    }
+
+    private static int intParam(Map<String, String> query, String name, int def) {
+        String v = query.get(name);
+        return v == null ? def : Integer.parseInt(v);
+    }
+
+    // Validated up front because a streamed batch cannot report errors once headers are sent
+    private static void checkLength(int length) {
+        if (length < 4 || length > MAX_LENGTH)
+            throw new IllegalArgumentException("Length must be between 4 and " + MAX_LENGTH);
+    }
+
+    // One request must not stream for ever while holding a pooled context
+    private static void checkCount(long count) {
+        if (count < 0 || count > MAX_COUNT)
+            throw new IllegalArgumentException("Count must be between 0 and " + MAX_COUNT);
+    }
+
+    private static void send(HttpExchange ex, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+        ex.getResponseHeaders().add("Cache-Control", "no-store");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        WordList wordList = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--wordlist" -> wordList = WordList.open(Path.of(args[++i]));
+                default -> {
+                    System.err.println("Usage: AppServer [--port P] [--wordlist FILE]");
+                    System.exit(2);
+                }
+            }
+        }
+        AppServer server = new AppServer(port, wordList);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("Password Generator service listening on http://127.0.0.1:" + server.port());
+    }
+}
@@ -0,0 +1,351 @@
+package com.francismul.passwordgenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Offline breached-password check against a local, sorted file of raw password hashes
+ * (HIBP-style SHA-1 or NTLM), e.g. built with {@link #convert}.
+ * The file is memory-mapped in windows that hold whole records, so it can be tens of GB.
+ * A 65536-entry fan-out index on the first two hash bytes narrows each lookup to a
+ * small slice, which is then binary searched, so a check costs a handful of page touches.
+ * Thread-safe; used as a {@link PasswordFilter} it rejects breached candidates.
+ */
+public final class BreachedHashFile implements PasswordFilter, AutoCloseable {
+    private static final int FAN_OUT = 1 << 16;
+    private static final int BATCH_SLICE_BITS = 20;
+
+    public enum Algorithm {
+        /** SHA-1 of the UTF-8 password, as in the HIBP SHA-1 downloads. */
+        SHA1(20),
+        /** MD4 of the UTF-16LE password, as in the HIBP NTLM downloads. */
+        NTLM(16);
+
+        private final int bytes;
+
+        Algorithm(int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int bytes() {
+            return bytes;
+        }
+    }
+
+    private final FileChannel channel;
+    private final Algorithm algorithm;
+    private final int width;
+    private final long count;
+    private final long recordsPerWindow;
+    private final MappedByteBuffer[] windows;
+    private final long[] fanOut = new long[FAN_OUT + 1];
+    private final ThreadLocal<Hasher> hashers;
+
+    private BreachedHashFile(FileChannel channel, Algorithm algorithm, long count) throws IOException {
+        this.channel = channel;
+        this.algorithm = algorithm;
+        this.width = algorithm.bytes();
+        this.count = count;
+        this.recordsPerWindow = MappedPasswordFile.MAX_WINDOW_BYTES / width;
+        int n = (int) ((count + recordsPerWindow - 1) / recordsPerWindow);
+        this.windows = new MappedByteBuffer[n];
+        for (int w = 0; w < n; w++) {
+            long first = w * recordsPerWindow;
+            long records = Math.min(recordsPerWindow, count - first);
+            windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, first * width, records * width);
+        }
+        this.hashers = ThreadLocal.withInitial(() -> new Hasher(algorithm));
+        buildFanOut();
+    }
+
+    /**
+     * Maps a binary file of {@code algorithm.bytes()}-byte hashes in ascending unsigned order.
+     */
+    public static BreachedHashFile open(Path path, Algorithm algorithm) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = ch.size();
+            if (size % algorithm.bytes() != 0)
+                throw new IOException("File size " + size + " is not a multiple of the " + algorithm
+                        + " hash size: " + path);
+            return new BreachedHashFile(ch, algorithm, size / algorithm.bytes());
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Converts a sorted HIBP text download ("HEXHASH:count" per line) to the binary format
+     * read by {@link #open}. Returns the number of hashes written.
+     */
+    public static long convert(Path hibpText, Path out, Algorithm algorithm) throws IOException {
+        HexFormat hex = HexFormat.of();
+        byte[] previous = null;
+        long written = 0;
+        try (BufferedReader in = Files.newBufferedReader(hibpText, StandardCharsets.US_ASCII);
+                OutputStream os = new BufferedOutputStream(Files.newOutputStream(out), 1 << 20)) {
+            for (String line; (line = in.readLine()) != null;) {
+                int colon = line.indexOf(':');
+                String digits = (colon < 0 ? line : line.substring(0, colon)).strip();
+                if (digits.isEmpty())
+                    continue;
+                if (digits.length() != algorithm.bytes() * 2)
+                    throw new IOException("Not a " + algorithm + " hash: " + digits);
+                byte[] hash = hex.parseHex(digits);
+                if (previous != null && Arrays.compareUnsigned(previous, hash) > 0)
+                    throw new IOException("Input is not sorted at line " + (written + 1));
+                os.write(hash);
+                previous = hash;
+                written++;
+            }
+        }
+        return written;
+    }
+
+    public Algorithm algorithm() {
+        return algorithm;
+    }
+
+    /** Number of hashes in the file. */
+    public long count() {
+        return count;
+    }
+
+    public boolean contains(CharSequence password) {
+        char[] buf = password.toString().toCharArray();
+        try {
+            return contains(buf, 0, buf.length);
+        } finally {
+            Arrays.fill(buf, '\0');
+        }
+    }
+
+    public boolean contains(char[] buf, int offset, int length) {
+        Hasher h = hashers.get();
+        return containsHash(h.hash(buf, offset, length));
+    }
+
+    /** True if the raw {@code algorithm.bytes()}-byte hash is in the file. */
+    public boolean containsHash(byte[] hash) {
+        if (hash.length != width)
+            throw new IllegalArgumentException("Expected a " + width + "-byte hash");
+        int prefix = ((hash[0] & 0xff) << 8) | (hash[1] & 0xff);
+        long lo = fanOut[prefix];
+        long hi = fanOut[prefix + 1] - 1;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            int cmp = compare(mid, hash);
+            if (cmp < 0)
+                lo = mid + 1;
+            else if (cmp > 0)
+                hi = mid - 1;
+            else
+                return true;
+        }
+        return false;
+    }
+
+    /** Rejects candidates that appear in the file. */
+    @Override
+    public boolean accept(char[] buf, int offset, int length) {
+        return !contains(buf, offset, length);
+    }
+
+    /**
+     * Audit check: bit {@code i} of the result is set if {@code passwords.get(i)} is breached.
+     * Lookups are made in hash order, so the file is walked front to back once per
+     * slice of about a million passwords instead of being hit at random.
+     */
+    public BitSet check(List<? extends CharSequence> passwords) {
+        BitSet breached = new BitSet(passwords.size());
+        int slice = 1 << BATCH_SLICE_BITS;
+        long[] keys = new long[Math.min(slice, passwords.size())];
+        byte[] hashes = new byte[keys.length * width];
+        byte[] hash = new byte[width];
+        Hasher h = hashers.get();
+        for (int base = 0; base < passwords.size(); base += slice) {
+            int n = Math.min(slice, passwords.size() - base);
+            for (int i = 0; i < n; i++) {
+                char[] buf = passwords.get(base + i).toString().toCharArray();
+                System.arraycopy(h.hash(buf, 0, buf.length), 0, hashes, i * width, width);
+                Arrays.fill(buf, '\0');
+                // Top 44 hash bits order the lookups; the low bits carry the index within the slice.
+                // The sign bit is flipped so the signed sort below yields the file's unsigned order.
+                long top = 0;
+                for (int k = 0; k < 8; k++)
+                    top = (top << 8) | (hashes[i * width + k] & 0xff);
+                keys[i] = ((top >>> BATCH_SLICE_BITS << BATCH_SLICE_BITS) | i) ^ Long.MIN_VALUE;
+            }
+            Arrays.sort(keys, 0, n);
+            for (int k = 0; k < n; k++) {
+                int i = (int) (keys[k] & (slice - 1));
+                System.arraycopy(hashes, i * width, hash, 0, width);
+                if (containsHash(hash))
+                    breached.set(base + i);
+            }
+        }
+        Arrays.fill(hashes, (byte) 0);
+        return breached;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Boundaries sit near prefix * count / 65536 for uniform hashes, so each is found by galloping from there
+    private void buildFanOut() {
+        fanOut[FAN_OUT] = count;
+        long previous = 0;
+        for (int p = 0; p < FAN_OUT; p++) {
+            long guess = Math.max(previous, (long) ((double) p * count / FAN_OUT));
+            long lo = previous;
+            long hi = count;
+            long step = 1;
+            if (guess > lo && prefix(guess - 1) >= p) {
+                hi = guess;
+                while (hi - step > lo && prefix(hi - step) >= p) {
+                    hi -= step;
+                    step <<= 1;
+                }
+                lo = Math.max(lo, hi - step);
+            } else {
+                lo = guess;
+                while (lo + step < count && prefix(lo + step) < p) {
+                    lo += step;
+                    step <<= 1;
+                }
+                hi = Math.min(count, lo + step);
+            }
+            // First record in [lo, hi) whose prefix is >= p
+            while (lo < hi) {
+                long mid = (lo + hi) >>> 1;
+                if (prefix(mid) < p)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            fanOut[p] = lo;
+            previous = lo;
+        }
+    }
+
+    private int prefix(long record) {
+        MappedByteBuffer w = windows[(int) (record / recordsPerWindow)];
+        return w.getShort((int) (record % recordsPerWindow) * width) & 0xffff;
+    }
+
+    // Unsigned compare of record against hash, 8 bytes at a time
+    private int compare(long record, byte[] hash) {
+        MappedByteBuffer w = windows[(int) (record / recordsPerWindow)];
+        int pos = (int) (record % recordsPerWindow) * width;
+        int k = 0;
+        for (; k + 8 <= width; k += 8) {
+            long a = w.getLong(pos + k);
+            long b = 0;
+            for (int j = 0; j < 8; j++)
+                b = (b << 8) | (hash[k + j] & 0xff);
+            if (a != b)
+                return Long.compareUnsigned(a, b);
+        }
+        for (; k < width; k++) {
+            int a = w.get(pos + k) & 0xff;
+            int b = hash[k] & 0xff;
+            if (a != b)
+                return a - b;
+        }
+        return 0;
+    }
+
+    // Per-thread digest and encoding scratch; the encoded password is wiped after hashing
+    private static final class Hasher {
+        private final Algorithm algorithm;
+        private final MessageDigest sha1;
+        private final byte[] hash;
+        private byte[] encoded = new byte[256];
+
+        Hasher(Algorithm algorithm) {
+            this.algorithm = algorithm;
+            this.hash = new byte[algorithm.bytes()];
+            try {
+                this.sha1 = algorithm == Algorithm.SHA1 ? MessageDigest.getInstance("SHA-1") : null;
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-1 is not available", e);
+            }
+        }
+
+        byte[] hash(char[] buf, int offset, int length) {
+            int n = algorithm == Algorithm.SHA1 ? utf8(buf, offset, length) : utf16le(buf, offset, length);
+            if (sha1 != null) {
+                sha1.update(encoded, 0, n);
+                try {
+                    sha1.digest(hash, 0, hash.length);
+                } catch (java.security.DigestException e) {
+                    throw new IllegalStateException(e);
+                }
+            } else {
+                Md4.digest(encoded, n, hash);
+            }
+            Arrays.fill(encoded, 0, n, (byte) 0);
+            return hash;
+        }
+
+        private int utf8(char[] buf, int offset, int length) {
+            ensure(length * 3);
+            int n = 0;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                int c = buf[i];
+                if (Character.isHighSurrogate(buf[i]) && i + 1 < end && Character.isLowSurrogate(buf[i + 1]))
+                    c = Character.toCodePoint(buf[i], buf[++i]);
+                else if (Character.isSurrogate(buf[i]))
+                    c = '?';
+                if (c < 0x80) {
+                    encoded[n++] = (byte) c;
+                } else if (c < 0x800) {
+                    encoded[n++] = (byte) (0xc0 | (c >> 6));
+                    encoded[n++] = (byte) (0x80 | (c & 0x3f));
+                } else if (c < 0x10000) {
+                    encoded[n++] = (byte) (0xe0 | (c >> 12));
+                    encoded[n++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    encoded[n++] = (byte) (0x80 | (c & 0x3f));
+                } else {
+                    encoded[n++] = (byte) (0xf0 | (c >> 18));
+                    encoded[n++] = (byte) (0x80 | ((c >> 12) & 0x3f));
+                    encoded[n++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    encoded[n++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            return n;
+        }
+
+        private int utf16le(char[] buf, int offset, int length) {
+            ensure(length * 2);
+            for (int i = 0; i < length; i++) {
+                char c = buf[offset + i];
+                encoded[i * 2] = (byte) c;
+                encoded[i * 2 + 1] = (byte) (c >>> 8);
+            }
+            return length * 2;
+        }
+
+        private void ensure(int n) {
+            if (encoded.length < n)
+                encoded = new byte[Math.max(n, encoded.length * 2)];
+        }
+    }
+}
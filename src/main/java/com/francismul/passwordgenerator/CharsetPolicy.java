@@ -0,0 +1,122 @@
+package com.francismul.passwordgenerator;
+
+/**
+ * Immutable, precompiled character-set selection.
+ * Every combination of the four character classes is built once and interned,
+ * so generating or scoring a password never rebuilds the pool.
+ */
+public final class CharsetPolicy {
+    public static final int LOWER = 1;
+    public static final int UPPER = 1 << 1;
+    public static final int DIGITS = 1 << 2;
+    public static final int SYMBOLS = 1 << 3;
+
+    static final String LOWER_CHARS = "abcdefghijklmnopqrstuvwxyz";
+    static final String UPPER_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    static final String DIGIT_CHARS = "0123456789";
+    static final String SYMBOL_CHARS = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+
+    private static final String[] CLASS_CHARS = { LOWER_CHARS, UPPER_CHARS, DIGIT_CHARS, SYMBOL_CHARS };
+    private static final CharsetPolicy[] CACHE = new CharsetPolicy[1 << CLASS_CHARS.length];
+
+    static {
+        for (int mask = 1; mask < CACHE.length; mask++)
+            CACHE[mask] = new CharsetPolicy(mask);
+    }
+
+    final int mask;
+    final char[] pool;
+    final int[] classOffsets;
+    final int[] classLengths;
+    final double log2PoolSize;
+
+    private CharsetPolicy(int mask) {
+        int classes = Integer.bitCount(mask);
+        int size = 0;
+        for (int c = 0; c < CLASS_CHARS.length; c++) {
+            if ((mask & (1 << c)) != 0)
+                size += CLASS_CHARS[c].length();
+        }
+        this.mask = mask;
+        this.pool = new char[size];
+        this.classOffsets = new int[classes];
+        this.classLengths = new int[classes];
+        int k = 0;
+        int offset = 0;
+        for (int c = 0; c < CLASS_CHARS.length; c++) {
+            if ((mask & (1 << c)) == 0)
+                continue;
+            String chars = CLASS_CHARS[c];
+            chars.getChars(0, chars.length(), pool, offset);
+            classOffsets[k] = offset;
+            classLengths[k] = chars.length();
+            offset += chars.length();
+            k++;
+        }
+        this.log2PoolSize = Math.log(size) / Math.log(2);
+    }
+
+    /**
+     * Returns the interned policy for the given class flags.
+     */
+    public static CharsetPolicy of(boolean lower, boolean upper, boolean digits, boolean symbols) {
+        return of(mask(lower, upper, digits, symbols));
+    }
+
+    /**
+     * Returns the interned policy for a combination of {@link #LOWER}, {@link #UPPER},
+     * {@link #DIGITS} and {@link #SYMBOLS}.
+     */
+    public static CharsetPolicy of(int mask) {
+        if (mask < 0 || mask >= CACHE.length)
+            throw new IllegalArgumentException("Unknown character set mask: " + mask);
+        if (mask == 0)
+            throw new IllegalArgumentException("Select at least one character set.");
+        return CACHE[mask];
+    }
+
+    static int mask(boolean lower, boolean upper, boolean digits, boolean symbols) {
+        return (lower ? LOWER : 0) | (upper ? UPPER : 0) | (digits ? DIGITS : 0) | (symbols ? SYMBOLS : 0);
+    }
+
+    public int mask() {
+        return mask;
+    }
+
+    public boolean includes(int flag) {
+        return (mask & flag) == flag;
+    }
+
+    public int poolSize() {
+        return pool.length;
+    }
+
+    public char charAt(int index) {
+        return pool[index];
+    }
+
+    /** Number of selected character classes. */
+    public int classCount() {
+        return classOffsets.length;
+    }
+
+    /** Start of the k-th selected class inside the pool. */
+    public int classOffset(int k) {
+        return classOffsets[k];
+    }
+
+    public int classLength(int k) {
+        return classLengths[k];
+    }
+
+    public double log2PoolSize() {
+        return log2PoolSize;
+    }
+
+    @Override
+    public String toString() {
+        return "CharsetPolicy[" + (includes(LOWER) ? "lower " : "") + (includes(UPPER) ? "upper " : "")
+                + (includes(DIGITS) ? "digits " : "") + (includes(SYMBOLS) ? "symbols " : "")
+                + "pool=" + pool.length + "]";
+    }
+}
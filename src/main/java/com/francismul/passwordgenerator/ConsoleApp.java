@@ -0,0 +1,84 @@
+package com.francismul.passwordgenerator;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Headless entry point for scripts and the {@code Console} jar; never loads AWT or Swing.
+ * A plain request for a few passwords on stdout ({@code --count}, {@code --length} and the
+ * class flags only) is answered on the main thread through {@link PasswordGenerator}, without
+ * the fork-join pool, channels or lambdas of {@link App#runHeadless}, so a cold start costs
+ * little more than JVM and {@code SecureRandom} startup. Everything else is handed to {@link App}.
+ */
+public final class ConsoleApp {
+    static final int FAST_PATH_MAX_COUNT = 1024;
+    static final int FAST_PATH_MAX_LENGTH = 1024;
+
+    private ConsoleApp() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            App.main(args);
+            return;
+        }
+        int code = fastPath(args);
+        if (code < 0)
+            code = App.runHeadless(args);
+        // Returning instead of exiting skips Runtime.exit's logger setup on the common path
+        if (code != 0)
+            System.exit(code);
+    }
+
+    /** Exit code, or -1 when the arguments need the full headless mode. */
+    static int fastPath(String[] args) {
+        long count = 1;
+        int length = 16;
+        boolean lower = false, upper = false, digits = false, symbols = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--count" -> count = Long.parseLong(args[++i]);
+                    case "--length" -> length = Integer.parseInt(args[++i]);
+                    case "--lower" -> lower = true;
+                    case "--upper" -> upper = true;
+                    case "--digits" -> digits = true;
+                    case "--symbols" -> symbols = true;
+                    case "--out" -> {
+                        if (!args[++i].equals("-"))
+                            return -1;
+                    }
+                    default -> {
+                        return -1;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            return -1; // App reports the bad or missing value
+        }
+        if (count < 0 || count > FAST_PATH_MAX_COUNT || length < 4 || length > FAST_PATH_MAX_LENGTH)
+            return -1;
+        if (!lower && !upper && !digits && !symbols)
+            lower = upper = digits = symbols = true;
+
+        CharsetPolicy policy = CharsetPolicy.of(lower, upper, digits, symbols);
+        byte[] lines = new byte[(int) count * (length + 1)];
+        // Not System.out: raw ASCII bytes avoid initialising a charset encoder
+        FileOutputStream out = new FileOutputStream(FileDescriptor.out);
+        try {
+            PasswordGenerator.generateBatch((int) count, length, policy, ByteBuffer.wrap(lines), true);
+            out.write(lines);
+            return 0;
+        } catch (IOException e) {
+            if ("Broken pipe".equals(e.getMessage()))
+                return 0;
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        } finally {
+            Arrays.fill(lines, (byte) 0);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.francismul.passwordgenerator;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Passphrase-encrypted export files, streamed in fixed-size AES-256-GCM chunks.
+ * The key comes from PBKDF2-HMAC-SHA256 over a random per-file salt. Every chunk has its
+ * own nonce (a random file prefix plus the chunk index) and tag, and its associated data
+ * binds the header, the index and a final-chunk flag, so reordered, dropped or truncated
+ * chunks fail to decrypt. Writing keeps a bounded number of chunks in flight, encrypted in
+ * parallel and written in order; reading holds one chunk at a time. Either way memory does
+ * not depend on the file size.
+ * <p>
+ * Layout: {@code "PGENC001" | int chunkBytes | int iterations | salt[16] | noncePrefix[4]},
+ * then chunks of {@code int length | ciphertext+tag}.
+ */
+public final class EncryptedExport {
+    public static final String EXTENSION = ".pgenc";
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+    public static final int DEFAULT_ITERATIONS = 600_000;
+    static final int MAX_CHUNK_BYTES = 1 << 26;
+    // The count comes from an unauthenticated header, so it is bounded before any key derivation
+    static final int MAX_ITERATIONS = 8 * DEFAULT_ITERATIONS;
+    private static final long MAGIC = 0x5047454E43303031L; // "PGENC001"
+    private static final int SALT_BYTES = 16;
+    private static final int PREFIX_BYTES = 4;
+    private static final int HEADER_BYTES = Long.BYTES + 2 * Integer.BYTES + SALT_BYTES + PREFIX_BYTES;
+    private static final int TAG_BITS = 128;
+    private static final int TAG_BYTES = TAG_BITS / 8;
+    private static final int CIPHER_SLICE = 1024;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadLocal<Cipher> CIPHERS = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM is not available", e);
+        }
+    });
+
+    private EncryptedExport() {
+    }
+
+    /** Starts an encrypted export on {@code out} with the default chunk size and one worker per core. */
+    public static Output create(OutputStream out, char[] passphrase) throws IOException {
+        return create(out, passphrase, DEFAULT_CHUNK_BYTES, Runtime.getRuntime().availableProcessors(),
+                DEFAULT_ITERATIONS);
+    }
+
+    public static Output create(OutputStream out, char[] passphrase, int chunkBytes, int parallelism,
+            int iterations) throws IOException {
+        if (chunkBytes < 1 || chunkBytes > MAX_CHUNK_BYTES)
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + MAX_CHUNK_BYTES);
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be >= 1");
+        if (iterations < 1 || iterations > MAX_ITERATIONS)
+            throw new IllegalArgumentException("Iterations must be between 1 and " + MAX_ITERATIONS);
+        byte[] header = new byte[HEADER_BYTES];
+        ByteBuffer h = ByteBuffer.wrap(header).putLong(MAGIC).putInt(chunkBytes).putInt(iterations);
+        byte[] salt = new byte[SALT_BYTES];
+        byte[] prefix = new byte[PREFIX_BYTES];
+        RANDOM.nextBytes(salt);
+        RANDOM.nextBytes(prefix);
+        h.put(salt).put(prefix);
+        SecretKey key = deriveKey(passphrase, salt, iterations);
+        out.write(header);
+        return new Output(out, key, header, prefix, chunkBytes, parallelism);
+    }
+
+    /** Opens an export written by {@link #create}; a wrong passphrase fails on the first read. */
+    public static InputStream open(InputStream in, char[] passphrase) throws IOException {
+        byte[] header = in.readNBytes(HEADER_BYTES);
+        ByteBuffer h = ByteBuffer.wrap(header);
+        if (header.length < HEADER_BYTES || h.getLong() != MAGIC)
+            throw new IOException("Not an encrypted password export");
+        int chunkBytes = h.getInt();
+        int iterations = h.getInt();
+        if (chunkBytes < 1 || chunkBytes > MAX_CHUNK_BYTES || iterations < 1 || iterations > MAX_ITERATIONS)
+            throw new IOException("Corrupted encrypted export header");
+        byte[] salt = new byte[SALT_BYTES];
+        byte[] prefix = new byte[PREFIX_BYTES];
+        h.get(salt).get(prefix);
+        return new Input(in, deriveKey(passphrase, salt, iterations), header, prefix, chunkBytes);
+    }
+
+    private static SecretKey deriveKey(char[] passphrase, byte[] salt, int iterations) throws IOException {
+        PBEKeySpec spec = new PBEKeySpec(passphrase, salt, iterations, 256);
+        byte[] raw = null;
+        try {
+            raw = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+            return new SecretKeySpec(raw, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot derive the export key", e);
+        } finally {
+            spec.clearPassword();
+            if (raw != null)
+                Arrays.fill(raw, (byte) 0);
+        }
+    }
+
+    private static GCMParameterSpec nonce(byte[] prefix, long index) {
+        byte[] iv = new byte[PREFIX_BYTES + Long.BYTES];
+        System.arraycopy(prefix, 0, iv, 0, PREFIX_BYTES);
+        ByteBuffer.wrap(iv, PREFIX_BYTES, Long.BYTES).putLong(index);
+        return new GCMParameterSpec(TAG_BITS, iv);
+    }
+
+    private static byte[] aad(byte[] header, long index, boolean last) {
+        byte[] aad = Arrays.copyOf(header, HEADER_BYTES + Long.BYTES + 1);
+        ByteBuffer.wrap(aad, HEADER_BYTES, Long.BYTES + 1).putLong(index).put((byte) (last ? 1 : 0));
+        return aad;
+    }
+
+    /**
+     * Encrypting sink; also a {@link WritableByteChannel} so generator buffers go in without
+     * an extra copy. Closing writes the final chunk and closes the underlying stream.
+     */
+    public static final class Output extends OutputStream implements WritableByteChannel {
+        private final OutputStream out;
+        private final SecretKey key;
+        private final byte[] header;
+        private final byte[] prefix;
+        private final int chunkBytes;
+        private final int maxInFlight;
+        private final ForkJoinPool pool;
+        private final ArrayDeque<Chunk> free = new ArrayDeque<>();
+        private final ArrayDeque<Chunk> inFlight = new ArrayDeque<>();
+        private final byte[] lengthBytes = new byte[Integer.BYTES];
+        private Chunk current;
+        private long nextIndex;
+        private boolean closed;
+
+        private Output(OutputStream out, SecretKey key, byte[] header, byte[] prefix, int chunkBytes,
+                int parallelism) {
+            this.out = out;
+            this.key = key;
+            this.header = header;
+            this.prefix = prefix;
+            this.chunkBytes = chunkBytes;
+            this.maxInFlight = parallelism * 2;
+            this.pool = new ForkJoinPool(parallelism);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            Chunk c = chunk();
+            c.plain[c.length++] = (byte) b;
+            if (c.length == chunkBytes)
+                submit(false);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            while (len > 0) {
+                Chunk c = chunk();
+                int n = Math.min(len, chunkBytes - c.length);
+                System.arraycopy(b, off, c.plain, c.length, n);
+                c.length += n;
+                off += n;
+                len -= n;
+                if (c.length == chunkBytes)
+                    submit(false);
+            }
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int total = src.remaining();
+            while (src.hasRemaining()) {
+                Chunk c = chunk();
+                int n = Math.min(src.remaining(), chunkBytes - c.length);
+                src.get(c.plain, c.length, n);
+                c.length += n;
+                if (c.length == chunkBytes)
+                    submit(false);
+            }
+            return total;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed;
+        }
+
+        /** Writes the final chunk, which may be empty, then closes the underlying stream. */
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+            try (out) {
+                chunk();
+                submit(true);
+                while (!inFlight.isEmpty())
+                    writeHead();
+                out.flush();
+            } finally {
+                closed = true;
+                pool.shutdownNow();
+                for (Chunk c : free)
+                    c.wipe();
+                for (Chunk c : inFlight)
+                    c.wipe();
+                if (current != null)
+                    current.wipe();
+            }
+        }
+
+        private Chunk chunk() throws IOException {
+            if (closed)
+                throw new IOException("Encrypted export is closed");
+            if (current == null) {
+                if (inFlight.size() >= maxInFlight)
+                    writeHead();
+                current = free.isEmpty() ? new Chunk(chunkBytes) : free.poll();
+                current.length = 0;
+            }
+            return current;
+        }
+
+        private void submit(boolean last) {
+            Chunk c = current;
+            current = null;
+            long index = nextIndex++;
+            c.done = CompletableFuture.runAsync(() -> c.encrypt(key, prefix, aad(header, index, last), index),
+                    pool);
+            inFlight.add(c);
+        }
+
+        private void writeHead() throws IOException {
+            Chunk c = inFlight.poll();
+            try {
+                c.done.join();
+            } catch (CompletionException e) {
+                throw new IOException("Encryption failed", e.getCause());
+            }
+            ByteBuffer.wrap(lengthBytes).putInt(0, c.sealedLength);
+            out.write(lengthBytes);
+            out.write(c.sealed, 0, c.sealedLength);
+            free.add(c);
+        }
+    }
+
+    private static final class Chunk {
+        final byte[] plain;
+        final byte[] sealed;
+        int length;
+        int sealedLength;
+        CompletableFuture<Void> done;
+
+        Chunk(int chunkBytes) {
+            plain = new byte[chunkBytes];
+            sealed = new byte[chunkBytes + TAG_BYTES];
+        }
+
+        void encrypt(SecretKey key, byte[] prefix, byte[] aad, long index) {
+            try {
+                Cipher cipher = CIPHERS.get();
+                cipher.init(Cipher.ENCRYPT_MODE, key, nonce(prefix, index));
+                cipher.updateAAD(aad);
+                // Many small calls get the JDK's AES-CTR and GHASH loops JIT-compiled to their
+                // intrinsics within the first chunk; one huge call would run interpreted
+                int in = 0;
+                int out = 0;
+                while (length - in > CIPHER_SLICE) {
+                    out += cipher.update(plain, in, CIPHER_SLICE, sealed, out);
+                    in += CIPHER_SLICE;
+                }
+                sealedLength = out + cipher.doFinal(plain, in, length - in, sealed, out);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void wipe() {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+
+    /** Decrypting source that verifies each chunk before returning any of its bytes. */
+    private static final class Input extends InputStream {
+        private final InputStream in;
+        private final SecretKey key;
+        private final byte[] header;
+        private final byte[] prefix;
+        private final byte[] sealed;
+        private final byte[] plain;
+        private int pos;
+        private int limit;
+        private long index;
+        private boolean last;
+
+        Input(InputStream in, SecretKey key, byte[] header, byte[] prefix, int chunkBytes) {
+            this.in = in;
+            this.key = key;
+            this.header = header;
+            this.prefix = prefix;
+            this.sealed = new byte[chunkBytes + TAG_BYTES];
+            this.plain = new byte[chunkBytes];
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill())
+                return -1;
+            return plain[pos++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0)
+                return 0;
+            if (!fill())
+                return -1;
+            int n = Math.min(len, limit - pos);
+            System.arraycopy(plain, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            Arrays.fill(plain, (byte) 0);
+            in.close();
+        }
+
+        private boolean fill() throws IOException {
+            while (pos == limit) {
+                if (last) {
+                    if (in.read() != -1)
+                        throw new IOException("Unexpected data after the final chunk");
+                    return false;
+                }
+                readChunk();
+            }
+            return true;
+        }
+
+        private void readChunk() throws IOException {
+            byte[] len = in.readNBytes(Integer.BYTES);
+            if (len.length < Integer.BYTES)
+                throw new EOFException("Encrypted export is truncated");
+            int n = ByteBuffer.wrap(len).getInt();
+            if (n < TAG_BYTES || n > sealed.length)
+                throw new IOException("Corrupted chunk " + index);
+            if (in.readNBytes(sealed, 0, n) < n)
+                throw new EOFException("Encrypted export is truncated");
+            // The writer only ever fills non-final chunks, so anything shorter must be the last one
+            boolean finalChunk = n < sealed.length;
+            try {
+                Cipher cipher = CIPHERS.get();
+                cipher.init(Cipher.DECRYPT_MODE, key, nonce(prefix, index));
+                cipher.updateAAD(aad(header, index, finalChunk));
+                limit = cipher.doFinal(sealed, 0, n, plain, 0);
+            } catch (AEADBadTagException e) {
+                throw new IOException(index == 0 ? "Wrong passphrase or corrupted export" : "Corrupted chunk " + index,
+                        e);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Decryption failed", e);
+            }
+            pos = 0;
+            last = finalChunk;
+            index++;
+        }
+    }
+}
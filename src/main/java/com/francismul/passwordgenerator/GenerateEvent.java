@@ -0,0 +1,26 @@
+package com.francismul.passwordgenerator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event around one generate or generateBatch call on a {@link GeneratorContext}. */
+@Name("com.francismul.passwordgenerator.Generate")
+@Label("Password Generation")
+@Category("Password Generator")
+@Description("Passwords generated by one call")
+final class GenerateEvent extends Event {
+    @Label("Passwords")
+    int passwords;
+
+    @Label("Length")
+    int length;
+
+    @Label("Character Classes")
+    int policyMask;
+
+    // Not recorded; feeds the latency histogram
+    transient long startNanos;
+}
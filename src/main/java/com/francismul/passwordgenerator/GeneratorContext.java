@@ -0,0 +1,384 @@
+package com.francismul.passwordgenerator;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Reusable, single-threaded generation engine.
+ * Works on primitive char buffers and draws randomness through a {@link RandomSampler},
+ * so steady-state generation into a caller-supplied buffer does not allocate; the only
+ * remaining cost is whatever the random source allocates once per entropy block.
+ * When the Vector API module is present, large batches map whole blocks of random bytes
+ * to characters with a {@link PoolMapper} instead of drawing one character at a time.
+ */
+public final class GeneratorContext {
+    private static final int BATCH_CHUNK = 64 * 1024;
+    static final int MAX_ATTEMPTS = 1000;
+    private static final int MAP_BLOCK = 4096;
+
+    private RandomSampler sampler;
+    private char[] scratch = new char[64];
+    private byte[] byteScratch = new byte[0];
+    private long lastBitsConsumed;
+    private PasswordFilter filter;
+    private long rejected;
+    private boolean vectorMapping = PoolMapper.VECTOR_AVAILABLE;
+    private PoolMapper mapper; // only set inside a large batch
+    private byte[] mapIn;
+    private byte[] mapOut;
+    private int mapPos;
+    private int mapEnd;
+
+    public GeneratorContext() {
+        this(newDrbg());
+    }
+
+    public GeneratorContext(SecureRandom random) {
+        this(RandomSource.of(random));
+    }
+
+    public GeneratorContext(RandomSource random) {
+        this.sampler = new RandomSampler(random);
+    }
+
+    /**
+     * Points this context at a new stream while keeping its scratch buffers.
+     */
+    void bind(RandomSource random) {
+        this.sampler = new RandomSampler(random);
+    }
+
+    /**
+     * Installs a filter every generated password must pass; rejected candidates are regenerated.
+     * Pass null to remove it.
+     */
+    public void setFilter(PasswordFilter filter) {
+        this.filter = filter;
+    }
+
+    public PasswordFilter filter() {
+        return filter;
+    }
+
+    /** Candidates rejected by the filter so far. */
+    public long rejected() {
+        return rejected;
+    }
+
+    /**
+     * Turns the Vector API batch path on or off, e.g. to benchmark it against the scalar one.
+     */
+    void setVectorMapping(boolean on) {
+        if (on && !PoolMapper.VECTOR_AVAILABLE)
+            throw new UnsupportedOperationException("Start the JVM with --add-modules jdk.incubator.vector");
+        vectorMapping = on;
+    }
+
+    /** Random bits consumed by the most recent generate or generateBatch call. */
+    public long lastBitsConsumed() {
+        return lastBitsConsumed;
+    }
+
+    /** Random bits consumed by this context so far. */
+    public long bitsConsumed() {
+        return sampler.bitsConsumed();
+    }
+
+    public String generate(int length, CharsetPolicy policy) {
+        char[] buf = scratch(length);
+        generate(length, policy, buf, 0);
+        String out = new String(buf, 0, length);
+        Arrays.fill(buf, 0, length, '\0');
+        return out;
+    }
+
+    /**
+     * Writes one password into {@code dest} at {@code offset} and returns the number of chars written.
+     */
+    public int generate(int length, CharsetPolicy policy, char[] dest, int offset) {
+        checkLength(length);
+        if (offset < 0 || offset > dest.length - length) {
+            GeneratorMetrics.error();
+            throw new IndexOutOfBoundsException("Password of length " + length + " does not fit at offset " + offset);
+        }
+        long startBits = sampler.bitsConsumed();
+        if (GeneratorMetrics.ENABLED) {
+            GenerateEvent event = GeneratorMetrics.begin();
+            next(length, policy, dest, offset);
+            GeneratorMetrics.end(event, 1, length, policy);
+        } else {
+            next(length, policy, dest, offset);
+        }
+        lastBitsConsumed = sampler.bitsConsumed() - startBits;
+        return length;
+    }
+
+    public String generate(PasswordPolicy policy) {
+        int length = policy.length();
+        char[] buf = scratch(length);
+        generate(policy, buf, 0);
+        String out = new String(buf, 0, length);
+        Arrays.fill(buf, 0, length, '\0');
+        return out;
+    }
+
+    /**
+     * Builds one password that complies with {@code policy} into {@code dest} at {@code offset}
+     * and returns the number of chars written.
+     */
+    public int generate(PasswordPolicy policy, char[] dest, int offset) {
+        int length = policy.length();
+        if (offset < 0 || offset > dest.length - length) {
+            GeneratorMetrics.error();
+            throw new IndexOutOfBoundsException("Password of length " + length + " does not fit at offset " + offset);
+        }
+        long startBits = sampler.bitsConsumed();
+        GenerateEvent event = GeneratorMetrics.ENABLED ? GeneratorMetrics.begin() : null;
+        next(length, policy.charset(), policy, dest, offset);
+        if (GeneratorMetrics.ENABLED)
+            GeneratorMetrics.end(event, 1, length, policy.charset());
+        lastBitsConsumed = sampler.bitsConsumed() - startBits;
+        return length;
+    }
+
+    /**
+     * Writes one password at the buffer's position and advances it.
+     */
+    public void generate(int length, CharsetPolicy policy, CharBuffer dest) {
+        if (dest.remaining() < length)
+            throw new IndexOutOfBoundsException("Password of length " + length + " does not fit in buffer");
+        if (dest.hasArray()) {
+            generate(length, policy, dest.array(), dest.arrayOffset() + dest.position());
+            dest.position(dest.position() + length);
+            return;
+        }
+        char[] buf = scratch(length);
+        generate(length, policy, buf, 0);
+        dest.put(buf, 0, length);
+        Arrays.fill(buf, 0, length, '\0');
+    }
+
+    /**
+     * Writes {@code count} passwords back to back into {@code target} starting at {@code offset},
+     * each followed by '\n' when {@code newlines} is set. Returns the number of chars written.
+     */
+    public int generateBatch(int count, int length, CharsetPolicy policy, char[] target, int offset, boolean newlines) {
+        int total = checkBatch(count, length, newlines, target.length - (long) offset);
+        if (offset < 0) {
+            GeneratorMetrics.error();
+            throw new IndexOutOfBoundsException("Negative offset: " + offset);
+        }
+        int stride = stride(length, newlines);
+        long startBits = sampler.bitsConsumed();
+        GenerateEvent event = GeneratorMetrics.ENABLED ? GeneratorMetrics.begin() : null;
+        if (vectorMapping && (long) count * length >= MAP_BLOCK)
+            startMapping(policy);
+        try {
+            for (int n = 0, pos = offset; n < count; n++, pos += stride) {
+                next(length, policy, target, pos);
+                if (newlines)
+                    target[pos + length] = '\n';
+            }
+        } finally {
+            stopMapping();
+        }
+        if (GeneratorMetrics.ENABLED)
+            GeneratorMetrics.end(event, count, length, policy);
+        lastBitsConsumed = sampler.bitsConsumed() - startBits;
+        return total;
+    }
+
+    /**
+     * Batch variant writing at the buffer's position and advancing it.
+     */
+    public int generateBatch(int count, int length, CharsetPolicy policy, CharBuffer target, boolean newlines) {
+        int total = checkBatch(count, length, newlines, target.remaining());
+        if (target.hasArray()) {
+            generateBatch(count, length, policy, target.array(), target.arrayOffset() + target.position(), newlines);
+            target.position(target.position() + total);
+            return total;
+        }
+        int stride = stride(length, newlines);
+        char[] buf = scratch(Math.max(stride, Math.min(total, BATCH_CHUNK) / stride * stride));
+        int perChunk = buf.length / stride;
+        long bits = 0;
+        for (int done = 0; done < count; done += perChunk) {
+            int n = Math.min(perChunk, count - done);
+            generateBatch(n, length, policy, buf, 0, newlines);
+            bits += lastBitsConsumed;
+            target.put(buf, 0, n * stride);
+        }
+        Arrays.fill(buf, '\0');
+        lastBitsConsumed = bits;
+        return total;
+    }
+
+    /**
+     * Batch variant writing one ASCII byte per char at the buffer's position and advancing it.
+     */
+    public int generateBatch(int count, int length, CharsetPolicy policy, ByteBuffer target, boolean newlines) {
+        int total = checkBatch(count, length, newlines, target.remaining());
+        int stride = stride(length, newlines);
+        char[] chars = scratch(Math.max(stride, Math.min(total, BATCH_CHUNK) / stride * stride));
+        byte[] bytes = byteScratch(chars.length);
+        int perChunk = chars.length / stride;
+        long bits = 0;
+        for (int done = 0; done < count; done += perChunk) {
+            int n = Math.min(perChunk, count - done);
+            int len = generateBatch(n, length, policy, chars, 0, newlines);
+            bits += lastBitsConsumed;
+            for (int i = 0; i < len; i++)
+                bytes[i] = (byte) chars[i];
+            target.put(bytes, 0, len);
+        }
+        Arrays.fill(chars, '\0');
+        Arrays.fill(bytes, (byte) 0);
+        lastBitsConsumed = bits;
+        return total;
+    }
+
+    /**
+     * Joins {@code words} uniformly chosen words from {@code list} with {@code separator}.
+     */
+    public String generatePassphrase(int words, String separator, WordList list) {
+        if (words < 1)
+            throw new IllegalArgumentException("Word count must be >= 1");
+        long startBits = sampler.bitsConsumed();
+        StringBuilder out = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0)
+                out.append(separator);
+            out.append(list.get(sampler.nextInt(list.size())));
+        }
+        lastBitsConsumed = sampler.bitsConsumed() - startBits;
+        return out.toString();
+    }
+
+    /** Chars occupied by one password in a batch. */
+    public static int stride(int length, boolean newlines) {
+        return newlines ? length + 1 : length;
+    }
+
+    private static void checkLength(int length) {
+        if (length < 4) {
+            GeneratorMetrics.error();
+            throw new IllegalArgumentException("Length must be >= 4");
+        }
+    }
+
+    private static int checkBatch(int count, int length, boolean newlines, long capacity) {
+        checkLength(length);
+        if (count < 0) {
+            GeneratorMetrics.error();
+            throw new IllegalArgumentException("Count must be >= 0");
+        }
+        long total = (long) count * stride(length, newlines);
+        if (total > capacity) {
+            GeneratorMetrics.error();
+            throw new IndexOutOfBoundsException(count + " passwords need " + total + " chars, only " + capacity + " available");
+        }
+        return (int) total;
+    }
+
+    private void next(int length, CharsetPolicy policy, char[] dest, int offset) {
+        next(length, policy, null, dest, offset);
+    }
+
+    private void next(int length, CharsetPolicy policy, PasswordPolicy rules, char[] dest, int offset) {
+        draw(length, policy, rules, dest, offset);
+        if (filter == null)
+            return;
+        for (int attempt = 1; !filter.accept(dest, offset, length); attempt++) {
+            rejected++;
+            if (attempt == MAX_ATTEMPTS) {
+                GeneratorMetrics.error();
+                Arrays.fill(dest, offset, offset + length, '\0');
+                throw new IllegalStateException("No acceptable password after " + MAX_ATTEMPTS + " attempts");
+            }
+            draw(length, policy, rules, dest, offset);
+        }
+    }
+
+    private void draw(int length, CharsetPolicy policy, PasswordPolicy rules, char[] dest, int offset) {
+        if (rules != null)
+            rules.fill(sampler, dest, offset);
+        else
+            fill(length, policy, dest, offset);
+    }
+
+    // Unchecked core: coverage chars first, random fill, then an in-place shuffle
+    private void fill(int length, CharsetPolicy policy, char[] dest, int offset) {
+        char[] pool = policy.pool;
+        int classes = policy.classOffsets.length;
+        for (int k = 0; k < classes; k++)
+            dest[offset + k] = pool[policy.classOffsets[k] + sampler.nextInt(policy.classLengths[k])];
+        if (mapper != null) {
+            fillMapped(dest, offset + classes, offset + length);
+        } else {
+            for (int i = offset + classes, end = offset + length; i < end; i++)
+                dest[i] = pool[sampler.nextInt(pool.length)];
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int j = sampler.nextInt(i + 1);
+            char t = dest[offset + i];
+            dest[offset + i] = dest[offset + j];
+            dest[offset + j] = t;
+        }
+    }
+
+    private void startMapping(CharsetPolicy policy) {
+        mapper = PoolMapper.vector(policy);
+        if (mapIn == null) {
+            mapIn = new byte[MAP_BLOCK];
+            mapOut = new byte[MAP_BLOCK];
+        }
+        mapPos = mapEnd = 0;
+    }
+
+    private void stopMapping() {
+        if (mapper == null)
+            return;
+        mapper = null;
+        Arrays.fill(mapOut, (byte) 0);
+        mapPos = mapEnd = 0;
+    }
+
+    private void fillMapped(char[] dest, int from, int to) {
+        for (int i = from; i < to;) {
+            if (mapPos == mapEnd) {
+                sampler.nextBytes(mapIn);
+                mapEnd = mapper.map(mapIn, 0, MAP_BLOCK, mapOut, 0);
+                mapPos = 0;
+            }
+            int n = Math.min(to - i, mapEnd - mapPos);
+            for (int j = 0; j < n; j++)
+                dest[i + j] = (char) mapOut[mapPos + j];
+            i += n;
+            mapPos += n;
+        }
+    }
+
+    // DRBG allocates a small constant per nextBytes call, unlike NativePRNG which allocates per byte
+    private static SecureRandom newDrbg() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    private char[] scratch(int length) {
+        if (scratch.length < length)
+            scratch = new char[Math.max(length, scratch.length * 2)];
+        return scratch;
+    }
+
+    private byte[] byteScratch(int length) {
+        if (byteScratch.length < length)
+            byteScratch = new byte[length];
+        return byteScratch;
+    }
+}
@@ -0,0 +1,159 @@
+package com.francismul.passwordgenerator;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Generator counters, latency histogram and JFR events.
+ * Off unless the JVM starts with {@code -Dpasswordgenerator.metrics=true} (or App's
+ * {@code --metrics}). The flag is a static final, so with metrics off the JIT removes
+ * every hook and generation runs exactly as before. When on, the counters are exposed
+ * through JMX and JFR events are emitted whenever a recording enables them.
+ */
+public final class GeneratorMetrics implements GeneratorMetricsMBean {
+    public static final String PROPERTY = "passwordgenerator.metrics";
+    public static final String OBJECT_NAME = "com.francismul.passwordgenerator:type=GeneratorMetrics";
+    static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private static final LongAdder PASSWORDS = new LongAdder();
+    private static final LongAdder CHARACTERS = new LongAdder();
+    private static final LongAdder RANDOM_BYTES = new LongAdder();
+    private static final LongAdder ERRORS = new LongAdder();
+    private static final LatencyHistogram LATENCY = new LatencyHistogram();
+    private static final GeneratorMetrics INSTANCE = new GeneratorMetrics();
+
+    static {
+        if (ENABLED)
+            register();
+    }
+
+    public record Snapshot(long passwords, long characters, long randomBytes, long errors, long p50Nanos,
+            long p99Nanos, long p999Nanos) {
+    }
+
+    private GeneratorMetrics() {
+    }
+
+    public static boolean enabled() {
+        return ENABLED;
+    }
+
+    public static Snapshot snapshot() {
+        return new Snapshot(PASSWORDS.sum(), CHARACTERS.sum(), RANDOM_BYTES.sum(), ERRORS.sum(),
+                LATENCY.percentile(0.50), LATENCY.percentile(0.99), LATENCY.percentile(0.999));
+    }
+
+    /** Writes the current values, one per line. */
+    public static void dump(PrintStream out) {
+        if (!ENABLED) {
+            out.println("Metrics are off; start with -D" + PROPERTY + "=true");
+            return;
+        }
+        Snapshot s = snapshot();
+        out.println("passwords.generated   " + s.passwords());
+        out.println("characters.generated  " + s.characters());
+        out.println("random.bytes          " + s.randomBytes());
+        out.println("errors                " + s.errors());
+        out.println("latency.p50.ns        " + s.p50Nanos());
+        out.println("latency.p99.ns        " + s.p99Nanos());
+        out.println("latency.p999.ns       " + s.p999Nanos());
+    }
+
+    // Hooks; callers guard each call with ENABLED so disabled builds keep none of this
+
+    static GenerateEvent begin() {
+        GenerateEvent event = new GenerateEvent();
+        event.begin();
+        event.startNanos = System.nanoTime();
+        return event;
+    }
+
+    /** Single-password calls also feed the latency histogram. */
+    static void end(GenerateEvent event, int passwords, int length, CharsetPolicy policy) {
+        event.end();
+        if (passwords == 1)
+            LATENCY.record(System.nanoTime() - event.startNanos);
+        PASSWORDS.add(passwords);
+        CHARACTERS.add((long) passwords * length);
+        if (event.shouldCommit()) {
+            event.passwords = passwords;
+            event.length = length;
+            event.policyMask = policy.mask();
+            event.commit();
+        }
+    }
+
+    static void draw(RandomSource source, byte[] block) {
+        RandomDrawEvent event = new RandomDrawEvent();
+        event.begin();
+        source.nextBytes(block);
+        event.end();
+        RANDOM_BYTES.add(block.length);
+        if (event.shouldCommit()) {
+            event.bytes = block.length;
+            event.source = source.getClass().getSimpleName();
+            event.commit();
+        }
+    }
+
+    static void error() {
+        if (ENABLED)
+            ERRORS.increment();
+    }
+
+    private static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Another copy of the library got there first; counters still work, only JMX is skipped
+        }
+    }
+
+    @Override
+    public long getPasswordsGenerated() {
+        return PASSWORDS.sum();
+    }
+
+    @Override
+    public long getCharactersGenerated() {
+        return CHARACTERS.sum();
+    }
+
+    @Override
+    public long getRandomBytesConsumed() {
+        return RANDOM_BYTES.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return ERRORS.sum();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return LATENCY.percentile(0.50);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return LATENCY.percentile(0.99);
+    }
+
+    @Override
+    public long getLatencyP999Nanos() {
+        return LATENCY.percentile(0.999);
+    }
+
+    @Override
+    public void reset() {
+        PASSWORDS.reset();
+        CHARACTERS.reset();
+        RANDOM_BYTES.reset();
+        ERRORS.reset();
+        LATENCY.reset();
+    }
+}
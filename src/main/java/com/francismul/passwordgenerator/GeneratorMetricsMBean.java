@@ -0,0 +1,23 @@
+package com.francismul.passwordgenerator;
+
+/**
+ * JMX view of {@link GeneratorMetrics}, registered as
+ * {@code com.francismul.passwordgenerator:type=GeneratorMetrics}.
+ */
+public interface GeneratorMetricsMBean {
+    long getPasswordsGenerated();
+
+    long getCharactersGenerated();
+
+    long getRandomBytesConsumed();
+
+    long getErrors();
+
+    long getLatencyP50Nanos();
+
+    long getLatencyP99Nanos();
+
+    long getLatencyP999Nanos();
+
+    void reset();
+}
@@ -0,0 +1,180 @@
+package com.francismul.passwordgenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * Newest-first password history for a {@code JList}.
+ * Entries sit in a ring that grows on demand up to a fixed capacity, after which each add
+ * evicts the oldest. Every change fires a one-row event, so the list only repaints and
+ * lays out the rows that are visible. A filter keeps a second ring of matching sequence
+ * numbers; narrowing the query (typing more characters) rescans only the current matches.
+ */
+final class HistoryListModel extends AbstractListModel<String> {
+    static final String CAPACITY_PROPERTY = "passwordgenerator.history.capacity";
+    static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private String[] ring = new String[16];
+    private long added; // sequence number of the next entry; entry s lives in ring[s % ring.length]
+    private int size;
+
+    private String filter = "";
+    private long[] matches = new long[16]; // ascending sequence numbers, live in [matchStart, matchEnd)
+    private int matchStart;
+    private int matchEnd;
+
+    HistoryListModel(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("History capacity must be positive");
+        this.capacity = capacity;
+    }
+
+    /** Capacity from {@value #CAPACITY_PROPERTY}, or {@value #DEFAULT_CAPACITY}. */
+    static HistoryListModel fromSystemProperty() {
+        return new HistoryListModel(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /** Entries held, ignoring the filter. */
+    int totalSize() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    String filter() {
+        return filter;
+    }
+
+    @Override
+    public int getSize() {
+        return filtering() ? matchEnd - matchStart : size;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        if (index < 0 || index >= getSize())
+            throw new IndexOutOfBoundsException(index);
+        long seq = filtering() ? matches[matchEnd - 1 - index] : added - 1 - index;
+        return entry(seq);
+    }
+
+    /** Adds {@code pwd} as the newest entry, evicting the oldest when full. */
+    void add(String pwd) {
+        if (size == capacity) {
+            long oldest = added - size;
+            int last = getSize() - 1;
+            ring[slot(oldest)] = null;
+            size--;
+            if (!filtering()) {
+                fireIntervalRemoved(this, last, last);
+            } else if (matchStart < matchEnd && matches[matchStart] == oldest) {
+                matchStart++;
+                fireIntervalRemoved(this, last, last);
+            }
+        } else if (size == ring.length) {
+            grow();
+        }
+        ring[slot(added)] = pwd;
+        long seq = added++;
+        size++;
+        if (!filtering()) {
+            fireIntervalAdded(this, 0, 0);
+        } else if (pwd.contains(filter)) {
+            appendMatch(seq);
+            fireIntervalAdded(this, 0, 0);
+        }
+    }
+
+    /** Shows only entries containing {@code query}; empty shows everything. */
+    void setFilter(String query) {
+        String q = query == null ? "" : query;
+        if (q.equals(filter))
+            return;
+        int before = getSize();
+        boolean narrowing = filtering() && q.contains(filter);
+        filter = q;
+        if (filtering()) {
+            if (narrowing) {
+                int kept = matchStart;
+                for (int i = matchStart; i < matchEnd; i++) {
+                    if (entry(matches[i]).contains(q))
+                        matches[kept++] = matches[i];
+                }
+                matchEnd = kept;
+            } else {
+                matchStart = matchEnd = 0;
+                for (long s = added - size; s < added; s++) {
+                    if (entry(s).contains(q))
+                        appendMatch(s);
+                }
+            }
+        } else {
+            matchStart = matchEnd = 0;
+        }
+        int after = getSize();
+        if (before > 0)
+            fireIntervalRemoved(this, 0, before - 1);
+        if (after > 0)
+            fireIntervalAdded(this, 0, after - 1);
+    }
+
+    /** Every entry, newest first, regardless of the filter. */
+    List<String> snapshot() {
+        List<String> out = new ArrayList<>(size);
+        for (long s = added - 1; s >= added - size; s--)
+            out.add(entry(s));
+        return out;
+    }
+
+    void clear() {
+        int before = getSize();
+        Arrays.fill(ring, null);
+        size = 0;
+        matchStart = matchEnd = 0;
+        if (before > 0)
+            fireIntervalRemoved(this, 0, before - 1);
+    }
+
+    private boolean filtering() {
+        return !filter.isEmpty();
+    }
+
+    private String entry(long seq) {
+        return ring[slot(seq)];
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % ring.length);
+    }
+
+    // Only called while not yet full: copies entries oldest-first so the slots stay seq % length
+    private void grow() {
+        String[] bigger = new String[(int) Math.min(capacity, (long) ring.length * 2)];
+        for (long s = added - size; s < added; s++)
+            bigger[(int) (s % bigger.length)] = ring[slot(s)];
+        ring = bigger;
+    }
+
+    private void appendMatch(long seq) {
+        if (matchEnd == matches.length) {
+            int live = matchEnd - matchStart;
+            if (live * 2 > matches.length)
+                matches = Arrays.copyOfRange(matches, matchStart, matchStart + matches.length * 2);
+            else
+                System.arraycopy(matches, matchStart, matches, 0, live);
+            matchStart = 0;
+            matchEnd = live;
+        }
+        matches[matchEnd++] = seq;
+    }
+}
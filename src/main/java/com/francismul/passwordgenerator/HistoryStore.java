@@ -0,0 +1,462 @@
+package com.francismul.passwordgenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable, append-only password history.
+ * Each record is {@code [int length][UTF-8 bytes][int CRC32C]}, after an 8-byte file magic.
+ * Appends are queued and written by one background thread that fsyncs once per group, so
+ * callers never wait on the disk and a burst of entries costs one fsync, not one each.
+ * A side file ({@code <log>.idx}) holds the offset of every {@value #INDEX_STRIDE}th record,
+ * so opening scans at most one stride to validate the tail (truncating a torn last write)
+ * and {@link #tail} reads only the records it returns. A missing or stale index is rebuilt
+ * by scanning the whole log once.
+ */
+public final class HistoryStore implements AutoCloseable {
+    /** Log file for the GUI history; unset means history is not persisted. */
+    public static final String PROPERTY = "passwordgenerator.history.file";
+    static final int INDEX_STRIDE = 1024;
+    static final int MAX_ENTRY_BYTES = 1 << 15;
+    private static final long LOG_MAGIC = 0x5047484C4F473031L; // "PGHLOG01"
+    private static final long INDEX_MAGIC = 0x5047484944583031L; // "PGHIDX01"
+    private static final int HEADER = Long.BYTES;
+    private static final int READ_CHUNK = 1 << 16;
+    private static final String CLOSE = new String("close"); // identity marker for the writer queue
+
+    private final Path path;
+    private final FileChannel log;
+    private final FileChannel indexFile;
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private long[] index = new long[16];
+    private int indexSize;
+    private long count;
+    private long enqueued;
+    private long durable;
+    private long commits;
+    private Exception failure; // ends the writer; IOException or an unexpected RuntimeException
+    private boolean closed;
+
+    // Writer thread only
+    private long end;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(READ_CHUNK);
+    private final CRC32C crc = new CRC32C();
+
+    private HistoryStore(Path path, FileChannel log, FileChannel indexFile) {
+        this.path = path;
+        this.log = log;
+        this.indexFile = indexFile;
+        this.writer = Thread.ofPlatform().daemon().name("history-writer").unstarted(this::writeLoop);
+    }
+
+    /** Opens or creates the log at {@code path}, recovering from a torn final write. */
+    public static HistoryStore open(Path path) throws IOException {
+        FileChannel log = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileChannel idx = null;
+        try {
+            checkMagic(path, log);
+            idx = FileChannel.open(indexPath(path), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            HistoryStore store = new HistoryStore(path, log, idx);
+            store.recover();
+            store.writer.start();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            if (idx != null)
+                idx.close();
+            throw e;
+        }
+    }
+
+    /** Opens the log named by {@value #PROPERTY}, or returns null when it is unset. */
+    public static HistoryStore fromSystemProperty() throws IOException {
+        String file = System.getProperty(PROPERTY);
+        return file == null || file.isBlank() ? null : open(Path.of(file));
+    }
+
+    static Path indexPath(Path log) {
+        return log.resolveSibling(log.getFileName() + ".idx");
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /** Entries written so far, including ones still queued. */
+    public long size() {
+        synchronized (lock) {
+            return count + (enqueued - durable);
+        }
+    }
+
+    /** Number of fsync groups written; each covers every entry queued while the last one ran. */
+    long commits() {
+        synchronized (lock) {
+            return commits;
+        }
+    }
+
+    /** Queues {@code entry} for writing and returns immediately. */
+    public void append(String entry) {
+        if (entry.length() * 3L > MAX_ENTRY_BYTES && utf8Length(entry) > MAX_ENTRY_BYTES)
+            throw new IllegalArgumentException("History entry longer than " + MAX_ENTRY_BYTES + " bytes");
+        synchronized (lock) {
+            if (closed)
+                throw new IllegalStateException("History store is closed");
+            if (failure != null)
+                throw new IllegalStateException("History store failed", failure);
+            enqueued++;
+            queue.add(entry);
+        }
+    }
+
+    /** Blocks until every entry appended before this call is on disk. */
+    public void flush() throws IOException {
+        synchronized (lock) {
+            long target = enqueued;
+            boolean interrupted = false;
+            while (durable < target && failure == null && writer.isAlive()) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+            if (failure != null)
+                throw new IOException("History store failed", failure);
+        }
+    }
+
+    /**
+     * The newest {@code n} durable entries, oldest first. Reads start at the nearest indexed
+     * offset, so the cost depends on {@code n}, not on the size of the log.
+     */
+    public List<String> tail(int n) throws IOException {
+        return tail(n, Long.MAX_VALUE);
+    }
+
+    /**
+     * The newest {@code n} of the first {@code end} durable entries, oldest first, e.g. with
+     * {@code end} taken from {@link #size} to leave out everything appended afterwards.
+     */
+    public List<String> tail(int n, long end) throws IOException {
+        if (n < 0)
+            throw new IllegalArgumentException("Count must be >= 0");
+        long total;
+        long start;
+        long skip;
+        synchronized (lock) {
+            total = Math.max(0, Math.min(end, count));
+            long first = Math.max(0, total - n);
+            int k = (int) (first / INDEX_STRIDE);
+            start = index[k];
+            skip = first - (long) k * INDEX_STRIDE;
+        }
+        List<String> entries = new ArrayList<>((int) Math.min(n, total));
+        Reader r = new Reader(start);
+        for (long i = total - Math.min(n, total) - skip; i < total; i++) {
+            byte[] b = r.next();
+            if (b == null)
+                throw new IOException(path + " changed underneath the history store");
+            if (skip > 0)
+                skip--;
+            else
+                entries.add(new String(b, StandardCharsets.UTF_8));
+        }
+        return entries;
+    }
+
+    /** Writes everything queued, stops the writer and closes the files. */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed)
+                return;
+            closed = true;
+            queue.add(CLOSE);
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        try (log; indexFile) {
+            synchronized (lock) {
+                if (failure != null)
+                    throw new IOException("History store failed", failure);
+            }
+        }
+    }
+
+    // ===== Recovery =====
+
+    private void recover() throws IOException {
+        long size = log.size();
+        if (size == 0) {
+            ByteBuffer magic = ByteBuffer.allocate(HEADER).putLong(0, LOG_MAGIC);
+            log.write(magic, 0);
+            log.force(true);
+            index[0] = HEADER;
+            indexSize = 1;
+            end = HEADER;
+            writeIndex(0);
+            return;
+        }
+        boolean indexed = loadIndex(size);
+        long from = index[indexSize - 1];
+        long records = (long) (indexSize - 1) * INDEX_STRIDE;
+        Reader r = new Reader(from);
+        if (indexed && r.peekInvalid()) {
+            // The index points at garbage; trust only the log
+            indexed = false;
+            index[0] = HEADER;
+            indexSize = 1;
+            records = 0;
+            r = new Reader(HEADER);
+        }
+        int before = indexed ? indexSize : 0;
+        while (r.next() != null) {
+            records++;
+            if (records % INDEX_STRIDE == 0)
+                addIndex(r.position);
+        }
+        if (r.position < size)
+            log.truncate(r.position); // torn or corrupt tail from an interrupted write
+        count = records;
+        end = r.position;
+        if (before == 0) {
+            indexFile.truncate(0);
+            writeIndex(0);
+        } else if (indexSize > before) {
+            writeIndex(before);
+        }
+    }
+
+    private static void checkMagic(Path path, FileChannel log) throws IOException {
+        if (log.size() == 0)
+            return;
+        ByteBuffer magic = ByteBuffer.allocate(HEADER);
+        if (log.size() < HEADER || log.read(magic, 0) < HEADER || magic.getLong(0) != LOG_MAGIC)
+            throw new IOException(path + " is not a password history log");
+    }
+
+    private boolean loadIndex(long logSize) throws IOException {
+        index[0] = HEADER;
+        indexSize = 1;
+        long bytes = indexFile.size();
+        if (bytes < Long.BYTES || (bytes - Long.BYTES) % Long.BYTES != 0)
+            return false;
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(bytes, Integer.MAX_VALUE - 8));
+        readFully(indexFile, buf, 0);
+        if (buf.getLong(0) != INDEX_MAGIC)
+            return false;
+        int n = (buf.limit() - Long.BYTES) / Long.BYTES;
+        long[] offsets = new long[Math.max(16, n)];
+        long prev = 0;
+        for (int i = 0; i < n; i++) {
+            long off = buf.getLong(Long.BYTES + i * Long.BYTES);
+            if (off <= prev || off > logSize || (i == 0 && off != HEADER))
+                return false;
+            offsets[i] = prev = off;
+        }
+        if (n == 0)
+            return false;
+        index = offsets;
+        indexSize = n;
+        return true;
+    }
+
+    // Appends index[from..indexSize) to the index file; it is advisory, so it is not fsynced
+    private void writeIndex(int from) throws IOException {
+        if (from == 0)
+            indexFile.write(ByteBuffer.allocate(Long.BYTES).putLong(0, INDEX_MAGIC), 0);
+        ByteBuffer buf = ByteBuffer.allocate((indexSize - from) * Long.BYTES);
+        for (int i = from; i < indexSize; i++)
+            buf.putLong(index[i]);
+        buf.flip();
+        long pos = Long.BYTES + (long) from * Long.BYTES;
+        while (buf.hasRemaining())
+            pos += indexFile.write(buf, pos);
+    }
+
+    private void addIndex(long offset) {
+        if (indexSize == index.length)
+            index = Arrays.copyOf(index, indexSize * 2);
+        index[indexSize++] = offset;
+    }
+
+    // ===== Writer =====
+
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(take());
+                queue.drainTo(batch);
+                boolean stop = batch.removeIf(e -> e == CLOSE);
+                if (!batch.isEmpty())
+                    commit(batch);
+                batch.clear();
+                if (stop)
+                    return;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Recorded so append and flush report it instead of queueing to a dead thread
+            synchronized (lock) {
+                failure = e;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private String take() {
+        while (true) {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                // Only close() stops the writer, so queued entries are never dropped
+            }
+        }
+    }
+
+    private void commit(List<String> batch) throws IOException {
+        out.clear();
+        int indexBefore;
+        long records;
+        synchronized (lock) {
+            indexBefore = indexSize;
+            records = count;
+        }
+        long[] newOffsets = new long[batch.size() / INDEX_STRIDE + 1];
+        int newIndex = 0;
+        long pos = end;
+        for (String entry : batch) {
+            byte[] b = entry.getBytes(StandardCharsets.UTF_8);
+            int need = Integer.BYTES * 2 + b.length;
+            if (out.remaining() < need)
+                pos += drain(pos);
+            crc.reset();
+            crc.update(b);
+            out.putInt(b.length).put(b).putInt((int) crc.getValue());
+            records++;
+            if (records % INDEX_STRIDE == 0)
+                newOffsets[newIndex++] = pos + out.position();
+        }
+        pos += drain(pos);
+        log.force(false);
+        end = pos;
+        synchronized (lock) {
+            for (int i = 0; i < newIndex; i++)
+                addIndex(newOffsets[i]);
+            count = records;
+            durable += batch.size();
+            commits++;
+            lock.notifyAll();
+        }
+        if (newIndex > 0)
+            writeIndex(indexBefore);
+    }
+
+    private int drain(long pos) throws IOException {
+        out.flip();
+        int n = 0;
+        while (out.hasRemaining())
+            n += log.write(out, pos + n);
+        out.clear();
+        return n;
+    }
+
+    // ===== Reading =====
+
+    /** Sequential CRC-checked record reader over positional reads; null at end or at a bad record. */
+    private final class Reader {
+        private final ByteBuffer buf = ByteBuffer.allocate(READ_CHUNK);
+        private final CRC32C crc = new CRC32C();
+        private long position; // offset of the next record
+        private long bufStart;
+
+        Reader(long position) {
+            this.position = position;
+            this.bufStart = position;
+            buf.limit(0);
+        }
+
+        boolean peekInvalid() throws IOException {
+            long saved = position;
+            byte[] b = next();
+            boolean invalid = b == null && saved < log.size();
+            position = saved;
+            bufStart = saved;
+            buf.limit(0);
+            return invalid;
+        }
+
+        byte[] next() throws IOException {
+            if (!fill(Integer.BYTES))
+                return null;
+            int rel = (int) (position - bufStart);
+            int len = buf.getInt(rel);
+            if (len < 0 || len > MAX_ENTRY_BYTES || !fill(Integer.BYTES * 2 + len))
+                return null;
+            rel = (int) (position - bufStart);
+            byte[] b = new byte[len];
+            buf.get(rel + Integer.BYTES, b);
+            crc.reset();
+            crc.update(b);
+            if (buf.getInt(rel + Integer.BYTES + len) != (int) crc.getValue())
+                return null;
+            position += Integer.BYTES * 2 + len;
+            return b;
+        }
+
+        // Ensures need bytes from position are buffered; false when the log ends first
+        private boolean fill(int need) throws IOException {
+            if (position + need <= bufStart + buf.limit())
+                return true;
+            buf.clear();
+            bufStart = position;
+            while (buf.hasRemaining()) {
+                if (log.read(buf, bufStart + buf.position()) <= 0)
+                    break;
+            }
+            buf.flip();
+            return buf.limit() >= need;
+        }
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos + buf.position());
+            if (n < 0)
+                throw new IOException("Unexpected end of file");
+        }
+        buf.flip();
+    }
+
+    private static long utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
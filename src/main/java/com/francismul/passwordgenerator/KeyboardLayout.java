@@ -0,0 +1,117 @@
+package com.francismul.passwordgenerator;
+
+/**
+ * Key adjacency tables for spotting keyboard walks such as "qwerty" or "zxcvb".
+ * Keys sit on a grid in half-key units, so staggered rows (QWERTY) and straight rows
+ * (numeric keypad) share one rule: neighbours are one key apart in the same row or
+ * overlap in an adjacent row. Lookups are a single table read per character pair.
+ */
+public final class KeyboardLayout {
+    /** US QWERTY, shifted characters share their key. */
+    public static final KeyboardLayout QWERTY = new KeyboardLayout("qwerty", new String[] {
+            "`~ 1! 2@ 3# 4$ 5% 6^ 7& 8* 9( 0) -_ =+",
+            "qQ wW eE rR tT yY uU iI oO pP [{ ]} \\|",
+            "aA sS dD fF gG hH jJ kK lL ;: '\"",
+            "zZ xX cC vV bB nN mM ,< .> /?" }, new int[] { 0, 3, 4, 5 });
+
+    /** Numeric keypad. */
+    public static final KeyboardLayout KEYPAD = new KeyboardLayout("keypad", new String[] {
+            "   /  *  -",
+            "7  8  9  +",
+            "4  5  6",
+            "1  2  3",
+            "   0  ." }, new int[] { 0, 0, 0, 0, 0 });
+
+    private static final int CHARS = 128;
+
+    private final String name;
+    // Direction code + 1 for each adjacent (from, to) pair, 0 when not adjacent
+    private final byte[] direction = new byte[CHARS * CHARS];
+    private final boolean[] shifted = new boolean[CHARS];
+    private final int keys;
+    private final double averageDegree;
+
+    /**
+     * @param rows    one string per row; keys are space-separated tokens of one character, or
+     *                two for an unshifted/shifted pair; a run of three spaces leaves a gap
+     * @param offsets horizontal offset of each row in half-key units
+     */
+    private KeyboardLayout(String name, String[] rows, int[] offsets) {
+        this.name = name;
+        int[] xs = new int[CHARS];
+        int[] ys = new int[CHARS];
+        String[][] keyChars = new String[rows.length][];
+        int count = 0;
+        java.util.Arrays.fill(xs, Integer.MIN_VALUE);
+        for (int y = 0; y < rows.length; y++) {
+            String row = rows[y];
+            keyChars[y] = new String[0];
+            // Tokens are three columns wide so gaps keep their place in the grid
+            for (int col = 0, pos = 0; pos < row.length(); col++, pos += 3) {
+                String token = row.substring(pos, Math.min(row.length(), pos + 2)).trim();
+                if (token.isEmpty())
+                    continue;
+                count++;
+                for (int k = 0; k < token.length(); k++) {
+                    char c = token.charAt(k);
+                    xs[c] = offsets[y] + col * 2;
+                    ys[c] = y;
+                    shifted[c] = k == 1;
+                }
+            }
+        }
+        this.keys = count;
+        long edges = 0;
+        for (int a = 0; a < CHARS; a++) {
+            if (xs[a] == Integer.MIN_VALUE)
+                continue;
+            for (int b = 0; b < CHARS; b++) {
+                if (xs[b] == Integer.MIN_VALUE || a == b)
+                    continue;
+                int dx = xs[b] - xs[a];
+                int dy = ys[b] - ys[a];
+                boolean adjacent = dy == 0 ? Math.abs(dx) == 2 : Math.abs(dy) == 1 && Math.abs(dx) <= 2;
+                if (!adjacent)
+                    continue;
+                direction[a * CHARS + b] = (byte) ((dy + 1) * 5 + (dx + 2) + 1);
+                if (!shifted[a] && !shifted[b])
+                    edges++;
+            }
+        }
+        this.averageDegree = count == 0 ? 0 : (double) edges / count;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** True if {@code b} is next to {@code a} (shift state ignored). */
+    public boolean isAdjacent(char a, char b) {
+        return a < CHARS && b < CHARS && direction[a * CHARS + b] != 0;
+    }
+
+    /** Direction code of the step from {@code a} to {@code b}, or -1 if the keys are not adjacent. */
+    public int direction(char a, char b) {
+        return a < CHARS && b < CHARS ? direction[a * CHARS + b] - 1 : -1;
+    }
+
+    /** True if typing {@code c} needs shift on this layout. */
+    public boolean isShifted(char c) {
+        return c < CHARS && shifted[c];
+    }
+
+    /** Number of physical keys. */
+    public int keys() {
+        return keys;
+    }
+
+    /** Mean number of neighbours per key. */
+    public double averageDegree() {
+        return averageDegree;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,68 @@
+package com.francismul.passwordgenerator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of nanosecond latencies.
+ * Each power of two is split into 16 linear sub-buckets, so any recorded value is
+ * reported within about 6% while the whole histogram is a single 1024-slot array.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+
+    public void record(long nanos) {
+        counts.getAndIncrement(index(Math.max(0, nanos)));
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++)
+            total += counts.get(i);
+        return total;
+    }
+
+    /**
+     * Upper bound of the bucket holding the {@code quantile} (0..1) value, or 0 if nothing was recorded.
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0 || quantile > 1)
+            throw new IllegalArgumentException("Quantile must be in [0, 1]");
+        long total = count();
+        if (total == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank)
+                return upperBound(i);
+        }
+        return upperBound(counts.length() - 1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++)
+            counts.set(i, 0);
+    }
+
+    // Values below 16 map one-to-one; above that, the top SUB_BITS bits after the leading one pick the sub-bucket
+    private static int index(long v) {
+        if (v < SUB_BUCKETS)
+            return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        int sub = (int) (v >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        int exp = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (exp == 0)
+            return sub;
+        long base = (long) (SUB_BUCKETS | sub) << (exp - 1);
+        return base + (1L << (exp - 1)) - 1;
+    }
+}
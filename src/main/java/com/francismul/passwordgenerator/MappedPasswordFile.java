@@ -0,0 +1,130 @@
+package com.francismul.passwordgenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-width, memory-mapped password file.
+ * Every record is {@code length} ASCII chars followed by '\n', so the file is plain
+ * text and record N starts at byte N * (length + 1). Files larger than 2 GB are
+ * mapped in windows that always hold whole records.
+ */
+public final class MappedPasswordFile implements AutoCloseable {
+    static final long MAX_WINDOW_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final int length;
+    private final int stride;
+    private final long count;
+    private final long recordsPerWindow;
+    private final MappedByteBuffer[] windows;
+
+    private MappedPasswordFile(FileChannel channel, int length, long count) throws IOException {
+        this.channel = channel;
+        this.length = length;
+        this.stride = length + 1;
+        this.count = count;
+        this.recordsPerWindow = MAX_WINDOW_BYTES / stride;
+        int n = (int) ((count + recordsPerWindow - 1) / recordsPerWindow);
+        this.windows = new MappedByteBuffer[n];
+        for (int w = 0; w < n; w++) {
+            long first = w * recordsPerWindow;
+            long records = Math.min(recordsPerWindow, count - first);
+            windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, first * stride, records * stride);
+        }
+    }
+
+    /**
+     * Pre-sizes {@code path} and fills it with {@code count} passwords. Windows are filled by
+     * the generator's worker threads, each writing its own disjoint region of the mapping.
+     */
+    public static ParallelBatchGenerator.Result write(Path path, long count, int length, CharsetPolicy policy,
+            ParallelBatchGenerator generator) throws IOException {
+        if (count < 0)
+            throw new IllegalArgumentException("Count must be >= 0");
+        if (length < 4)
+            throw new IllegalArgumentException("Length must be >= 4");
+        int stride = length + 1;
+        long chunk = generator.chunkSize();
+        // Whole chunks per window keep stream numbering identical to a streamed run
+        long perWindow = Math.max(chunk, MAX_WINDOW_BYTES / stride / chunk * chunk);
+        if (perWindow * stride > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Password length " + length + " is too large for a mapped window");
+        long start = System.nanoTime();
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (count > 0)
+                ch.write(ByteBuffer.wrap(new byte[1]), count * stride - 1);
+            for (long first = 0; first < count; first += perWindow) {
+                int records = (int) Math.min(perWindow, count - first);
+                MappedByteBuffer window = ch.map(FileChannel.MapMode.READ_WRITE, first * stride,
+                        (long) records * stride);
+                generator.generate(records, length, policy, window, true, first / chunk);
+                window.force();
+            }
+        }
+        return new ParallelBatchGenerator.Result(count, System.nanoTime() - start);
+    }
+
+    /**
+     * Maps an existing file for random access; the record length is taken from the first line.
+     */
+    public static MappedPasswordFile open(Path path) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = ch.size();
+            if (size == 0)
+                return new MappedPasswordFile(ch, 4, 0);
+            ByteBuffer head = ByteBuffer.allocate((int) Math.min(size, 1 << 16));
+            ch.read(head, 0);
+            int length = -1;
+            for (int i = 0; i < head.position(); i++) {
+                if (head.get(i) == '\n') {
+                    length = i;
+                    break;
+                }
+            }
+            if (length < 4 || size % (length + 1) != 0)
+                throw new IOException(path + " is not a fixed-width password file");
+            return new MappedPasswordFile(ch, length, size / (length + 1));
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public String get(long index) {
+        char[] buf = new char[length];
+        get(index, buf, 0);
+        return new String(buf);
+    }
+
+    /**
+     * Copies record {@code index} into {@code dest} in O(1), without scanning the file.
+     */
+    public void get(long index, char[] dest, int offset) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Record " + index + " outside [0, " + count + ")");
+        MappedByteBuffer window = windows[(int) (index / recordsPerWindow)];
+        int pos = (int) (index % recordsPerWindow) * stride;
+        for (int i = 0; i < length; i++)
+            dest[offset + i] = (char) (window.get(pos + i) & 0xff);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.francismul.passwordgenerator;
+
+/**
+ * MD4 (RFC 1320), needed only for NTLM hashes; the JDK does not expose it as a provider.
+ * Not for any new security use.
+ */
+final class Md4 {
+    private Md4() {
+    }
+
+    /** Writes the 16-byte MD4 of {@code data[0, length)} into {@code out}. */
+    static void digest(byte[] data, int length, byte[] out) {
+        int a = 0x67452301, b = 0xefcdab89, c = 0x98badcfe, d = 0x10325476;
+        int[] x = new int[16];
+        long bitLength = (long) length * 8;
+        int padded = ((length + 8) / 64 + 1) * 64;
+        for (int block = 0; block < padded; block += 64) {
+            for (int i = 0; i < 16; i++) {
+                int v = 0;
+                for (int k = 3; k >= 0; k--)
+                    v = (v << 8) | (byteAt(data, length, bitLength, padded, block + i * 4 + k) & 0xff);
+                x[i] = v;
+            }
+            int aa = a, bb = b, cc = c, dd = d;
+            for (int i = 0; i < 16; i += 4) {
+                a = Integer.rotateLeft(a + ((b & c) | (~b & d)) + x[i], 3);
+                d = Integer.rotateLeft(d + ((a & b) | (~a & c)) + x[i + 1], 7);
+                c = Integer.rotateLeft(c + ((d & a) | (~d & b)) + x[i + 2], 11);
+                b = Integer.rotateLeft(b + ((c & d) | (~c & a)) + x[i + 3], 19);
+            }
+            for (int i = 0; i < 4; i++) {
+                a = Integer.rotateLeft(a + ((b & c) | (b & d) | (c & d)) + x[i] + 0x5a827999, 3);
+                d = Integer.rotateLeft(d + ((a & b) | (a & c) | (b & c)) + x[i + 4] + 0x5a827999, 5);
+                c = Integer.rotateLeft(c + ((d & a) | (d & b) | (a & b)) + x[i + 8] + 0x5a827999, 9);
+                b = Integer.rotateLeft(b + ((c & d) | (c & a) | (d & a)) + x[i + 12] + 0x5a827999, 13);
+            }
+            int[] order = { 0, 2, 1, 3 };
+            for (int i : order) {
+                a = Integer.rotateLeft(a + (b ^ c ^ d) + x[i] + 0x6ed9eba1, 3);
+                d = Integer.rotateLeft(d + (a ^ b ^ c) + x[i + 8] + 0x6ed9eba1, 9);
+                c = Integer.rotateLeft(c + (d ^ a ^ b) + x[i + 4] + 0x6ed9eba1, 11);
+                b = Integer.rotateLeft(b + (c ^ d ^ a) + x[i + 12] + 0x6ed9eba1, 15);
+            }
+            a += aa;
+            b += bb;
+            c += cc;
+            d += dd;
+        }
+        java.util.Arrays.fill(x, 0);
+        int[] state = { a, b, c, d };
+        for (int i = 0; i < 4; i++) {
+            for (int k = 0; k < 4; k++)
+                out[i * 4 + k] = (byte) (state[i] >>> (8 * k));
+        }
+    }
+
+    // Message bytes, then 0x80, zero padding and the little-endian bit length
+    private static byte byteAt(byte[] data, int length, long bitLength, int padded, int i) {
+        if (i < length)
+            return data[i];
+        if (i == length)
+            return (byte) 0x80;
+        if (i >= padded - 8)
+            return (byte) (bitLength >>> (8 * (i - (padded - 8))));
+        return 0;
+    }
+}
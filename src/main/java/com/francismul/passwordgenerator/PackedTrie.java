@@ -0,0 +1,89 @@
+package com.francismul.passwordgenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Read-only trie flattened into parallel arrays.
+ * Nodes are laid out breadth-first with each node's children contiguous and sorted by
+ * label, so a step is a binary search over a few chars and the whole structure is four
+ * primitive arrays with no per-node objects.
+ */
+final class PackedTrie {
+    static final int ROOT = 0;
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] ranks;
+
+    /**
+     * Builds a trie of {@code words}; each word's rank is its 1-based position in the list.
+     * Later duplicates keep the earlier (better) rank.
+     */
+    PackedTrie(List<String> words) {
+        Node root = new Node('\0');
+        for (int i = 0; i < words.size(); i++) {
+            Node n = root;
+            for (char c : words.get(i).toCharArray())
+                n = n.children.computeIfAbsent(c, Node::new);
+            if (n.rank == 0)
+                n.rank = i + 1;
+        }
+        List<Node> order = new ArrayList<>();
+        order.add(root);
+        for (int i = 0; i < order.size(); i++)
+            order.addAll(order.get(i).children.values());
+        int n = order.size();
+        labels = new char[n];
+        firstChild = new int[n];
+        childCount = new int[n];
+        ranks = new int[n];
+        int next = 1;
+        for (int i = 0; i < n; i++) {
+            Node node = order.get(i);
+            labels[i] = node.label;
+            ranks[i] = node.rank;
+            firstChild[i] = next;
+            childCount[i] = node.children.size();
+            next += node.children.size();
+        }
+    }
+
+    /** Child of {@code node} labelled {@code c}, or -1. */
+    int child(int node, char c) {
+        int lo = firstChild[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char l = labels[mid];
+            if (l < c)
+                lo = mid + 1;
+            else if (l > c)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    /** Rank of the word ending at {@code node}, or 0 if no word ends there. */
+    int rank(int node) {
+        return ranks[node];
+    }
+
+    int nodes() {
+        return labels.length;
+    }
+
+    private static final class Node {
+        final char label;
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        int rank;
+
+        Node(char label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.francismul.passwordgenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join bulk generation.
+ * Work is cut into fixed-size chunks, and chunk {@code i} writes its own output slice, so the
+ * result is in stable order. With a seeded source chunk {@code i} always draws from the same
+ * split, disjoint from the streams of caller threads, so the output is identical for any
+ * parallelism. A secure source gives each worker thread one split for its lifetime instead,
+ * because every split of a per-thread or striped source seeds a new instance.
+ */
+public final class ParallelBatchGenerator implements AutoCloseable {
+    public static final int DEFAULT_CHUNK = 16_384;
+
+    private final int parallelism;
+    private final int chunkSize;
+    private final RandomSource source;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<GeneratorContext> contexts = new ThreadLocal<>();
+    private volatile PasswordFilter filter;
+
+    /**
+     * Receives streamed chunks in index order.
+     */
+    @FunctionalInterface
+    public interface ChunkSink {
+        void accept(long firstPassword, ByteBuffer chunk) throws IOException;
+    }
+
+    public record Result(long passwords, long nanos) {
+        public double passwordsPerSecond() {
+            return nanos == 0 ? 0 : passwords * 1e9 / nanos;
+        }
+    }
+
+    public ParallelBatchGenerator(int parallelism) {
+        this(parallelism, DEFAULT_CHUNK, PasswordGenerator.randomSource());
+    }
+
+    public ParallelBatchGenerator(int parallelism, int chunkSize, RandomSource source) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be >= 1");
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("Chunk size must be >= 1");
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.source = source;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Applies {@code filter} to every password from now on. It is called from all worker
+     * threads at once, so it must be thread-safe. Output stays in chunk order, but with a
+     * stateful filter such as {@link UniqueFilter} the exact passwords of a seeded run may
+     * vary between runs when two chunks race for the same candidate.
+     */
+    public void setFilter(PasswordFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Fills {@code target} from {@code offset} with {@code count} fixed-stride passwords.
+     */
+    public Result generate(int count, int length, CharsetPolicy policy, char[] target, int offset, boolean newlines) {
+        int stride = GeneratorContext.stride(length, newlines);
+        checkCapacity(count, stride, target.length - (long) offset);
+        long start = System.nanoTime();
+        pool.invoke(new ChunkTask(0, chunkCount(count), (chunk, ctx) -> {
+            int first = chunk * chunkSize;
+            int n = Math.min(chunkSize, count - first);
+            ctx.generateBatch(n, length, policy, target, offset + first * stride, newlines);
+        }));
+        return new Result(count, System.nanoTime() - start);
+    }
+
+    /**
+     * Fills {@code target} from its position with ASCII passwords and advances the position.
+     */
+    public Result generate(int count, int length, CharsetPolicy policy, ByteBuffer target, boolean newlines) {
+        return generate(count, length, policy, target, newlines, 0);
+    }
+
+    // firstChunk numbers the streams, so windows of one large file continue the same sequence
+    Result generate(int count, int length, CharsetPolicy policy, ByteBuffer target, boolean newlines, long firstChunk) {
+        int stride = GeneratorContext.stride(length, newlines);
+        checkCapacity(count, stride, target.remaining());
+        int base = target.position();
+        long start = System.nanoTime();
+        pool.invoke(new ChunkTask(0, chunkCount(count), (chunk, ctx) -> {
+            int first = chunk * chunkSize;
+            int n = Math.min(chunkSize, count - first);
+            ctx.generateBatch(n, length, policy, target.slice(base + first * stride, n * stride), newlines);
+        }, firstChunk));
+        target.position(base + count * stride);
+        return new Result(count, System.nanoTime() - start);
+    }
+
+    /**
+     * Streams {@code count} passwords to {@code sink} in order without holding them all in memory.
+     * The next wave of chunks is generated while the sink drains the current one.
+     */
+    public Result generate(long count, int length, CharsetPolicy policy, boolean newlines, ChunkSink sink)
+            throws IOException {
+        if (count < 0)
+            throw new IllegalArgumentException("Count must be >= 0");
+        int stride = GeneratorContext.stride(length, newlines);
+        if ((long) chunkSize * stride > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Chunk of " + chunkSize + " passwords does not fit in a buffer");
+        long chunks = (count + chunkSize - 1) / chunkSize;
+        int wave = (int) Math.min(chunks, parallelism * 4L);
+        ByteBuffer[] current = newBuffers(wave, chunkSize * stride);
+        ByteBuffer[] next = newBuffers(wave, chunkSize * stride);
+        long start = System.nanoTime();
+        ForkJoinTask<?> pending = null;
+        try {
+            pending = chunks == 0 ? null : fillWave(current, 0, chunks, count, length, policy, newlines);
+            for (long waveStart = 0; waveStart < chunks; waveStart += wave) {
+                pending.join();
+                long nextStart = waveStart + wave;
+                pending = nextStart < chunks ? fillWave(next, nextStart, chunks, count, length, policy, newlines) : null;
+                for (int i = 0; i < wave && waveStart + i < chunks; i++)
+                    sink.accept((waveStart + i) * chunkSize, current[i]);
+                ByteBuffer[] t = current;
+                current = next;
+                next = t;
+            }
+        } finally {
+            if (pending != null)
+                pending.quietlyJoin();
+            wipe(current);
+            wipe(next);
+        }
+        return new Result(count, System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private ForkJoinTask<?> fillWave(ByteBuffer[] buffers, long waveStart, long chunks, long count, int length,
+            CharsetPolicy policy, boolean newlines) {
+        int waveChunks = (int) Math.min(buffers.length, chunks - waveStart);
+        return pool.submit(new ChunkTask(0, waveChunks, (i, ctx) -> {
+            long chunk = waveStart + i;
+            int n = (int) Math.min(chunkSize, count - chunk * chunkSize);
+            ByteBuffer buf = buffers[i].clear();
+            ctx.generateBatch(n, length, policy, buf, newlines);
+            buf.flip();
+        }, waveStart));
+    }
+
+    private int chunkCount(int count) {
+        if (count < 0)
+            throw new IllegalArgumentException("Count must be >= 0");
+        return (count + chunkSize - 1) / chunkSize;
+    }
+
+    private static void checkCapacity(int count, int stride, long capacity) {
+        long total = (long) count * stride;
+        if (total > capacity)
+            throw new IndexOutOfBoundsException(count + " passwords need " + total + " chars, only " + capacity + " available");
+    }
+
+    private static ByteBuffer[] newBuffers(int n, int capacity) {
+        ByteBuffer[] buffers = new ByteBuffer[n];
+        for (int i = 0; i < n; i++)
+            buffers[i] = ByteBuffer.allocateDirect(capacity);
+        return buffers;
+    }
+
+    private static void wipe(ByteBuffer[] buffers) {
+        for (ByteBuffer b : buffers) {
+            b.clear();
+            while (b.remaining() >= 8)
+                b.putLong(0);
+            while (b.hasRemaining())
+                b.put((byte) 0);
+        }
+    }
+
+    private interface ChunkWork {
+        void run(int chunk, GeneratorContext ctx);
+    }
+
+    // Splits [lo, hi) in halves down to single chunks, each run on the worker's reused context
+    private final class ChunkTask extends RecursiveAction {
+        private final int lo, hi;
+        private final ChunkWork work;
+        private final long streamBase;
+
+        ChunkTask(int lo, int hi, ChunkWork work) {
+            this(lo, hi, work, 0);
+        }
+
+        ChunkTask(int lo, int hi, ChunkWork work, long streamBase) {
+            this.lo = lo;
+            this.hi = hi;
+            this.work = work;
+            this.streamBase = streamBase;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ChunkTask(lo, mid, work, streamBase), new ChunkTask(mid, hi, work, streamBase));
+                return;
+            }
+            if (hi == lo)
+                return;
+            GeneratorContext ctx = contexts.get();
+            if (ctx == null) {
+                ctx = new GeneratorContext(source.split(Streams.BATCH + streamBase + lo));
+                contexts.set(ctx);
+            } else if (!source.isSecure()) {
+                ctx.bind(source.split(Streams.BATCH + streamBase + lo));
+            }
+            ctx.setFilter(filter);
+            work.run(lo, ctx);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.francismul.passwordgenerator;
+
+/**
+ * Optional stage after generation that can veto a candidate; rejected candidates are regenerated.
+ * Filters used with {@link ParallelBatchGenerator} must be thread-safe.
+ */
+@FunctionalInterface
+public interface PasswordFilter {
+
+    /**
+     * Returns true if {@code buf[offset, offset + length)} may be issued.
+     * Stateful filters record accepted candidates here.
+     */
+    boolean accept(char[] buf, int offset, int length);
+
+    /**
+     * Filter that passes only candidates both filters accept; {@code next} is not consulted,
+     * and so records nothing, for candidates this filter rejects.
+     */
+    default PasswordFilter and(PasswordFilter next) {
+        return (buf, offset, length) -> accept(buf, offset, length) && next.accept(buf, offset, length);
+    }
+}
@@ -1,75 +1,144 @@
 package com.francismul.passwordgenerator;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.security.SecureRandom;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class for generating secure passwords.
  */
 public class PasswordGenerator {
     private static final SecureRandom RAND = new SecureRandom();
-    private static final String LOWER = "abcdefghijklmnopqrstuvwxyz";
-    private static final String UPPER = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-    private static final String DIGITS = "0123456789";
-    private static final String SYMBOLS = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+    private static final AtomicLong THREAD_STREAMS = new AtomicLong();
+    private static final ThreadLocal<BoundContext> CONTEXT = new ThreadLocal<>();
+    private static volatile RandomSource source = SecureRandomSource.shared(RAND);
+    private static volatile PasswordFilter filter;
 
-    public static String generate(int length, boolean lower, boolean upper, boolean digits, boolean symbols) {
-        if (length < 4)
-            throw new IllegalArgumentException("Length must be >= 4");
-        StringBuilder pool = new StringBuilder();
-        List<Character> required = new ArrayList<>();
-        if (lower) {
-            pool.append(LOWER);
-            required.add(randomChar(LOWER));
-        }
-        if (upper) {
-            pool.append(UPPER);
-            required.add(randomChar(UPPER));
-        }
-        if (digits) {
-            pool.append(DIGITS);
-            required.add(randomChar(DIGITS));
-        }
-        if (symbols) {
-            pool.append(SYMBOLS);
-            required.add(randomChar(SYMBOLS));
-        }
-        if (pool.length() == 0)
-            throw new IllegalArgumentException("Select at least one character set.");
-        List<Character> chars = new ArrayList<>(length);
-        // Ensure category coverage
-        for (Character c : required)
-            chars.add(c);
-        // Fill remaining
-        for (int i = chars.size(); i < length; i++) {
-            chars.add(pool.charAt(RAND.nextInt(pool.length())));
+    private record BoundContext(RandomSource source, GeneratorContext context) {
+    }
+
+    /**
+     * Replaces the randomness behind every generate call. Pass a non-secure source
+     * such as {@link RandomSource#seeded(long)} only for test fixtures.
+     */
+    public static void setRandomSource(RandomSource randomSource) {
+        source = Objects.requireNonNull(randomSource, "randomSource");
+    }
+
+    /**
+     * Switches generation to independently seeded per-thread or per-core instances.
+     */
+    public static void useStripedRandom(RngAlgorithm algorithm, boolean perThread) {
+        setRandomSource(perThread ? SecureRandomSource.perThread(algorithm) : SecureRandomSource.striped(algorithm));
+    }
+
+    /** Restores the single shared SecureRandom. */
+    public static void useSharedRandom() {
+        setRandomSource(SecureRandomSource.shared(RAND));
+    }
+
+    public static RandomSource randomSource() {
+        return source;
+    }
+
+    /**
+     * Installs a filter, e.g. a {@link BreachedHashFile}, that every generated password must
+     * pass; rejected candidates are regenerated. Pass null to remove it.
+     */
+    public static void setFilter(PasswordFilter passwordFilter) {
+        filter = passwordFilter;
+    }
+
+    public static PasswordFilter filter() {
+        return filter;
+    }
+
+    // Each thread keeps its own context on a split of the current source. Threads are numbered
+    // in arrival order, so a seeded run replays per thread only if threads start in the same order;
+    // ParallelBatchGenerator numbers its streams by chunk for output that is reproducible regardless.
+    static GeneratorContext context() {
+        RandomSource s = source;
+        BoundContext bound = CONTEXT.get();
+        if (bound == null || bound.source() != s) {
+            long stream = Streams.THREADS + THREAD_STREAMS.getAndIncrement();
+            bound = new BoundContext(s, new GeneratorContext(s.split(stream)));
+            CONTEXT.set(bound);
         }
-        // Shuffle
-        Collections.shuffle(chars, RAND);
-        StringBuilder out = new StringBuilder(length);
-        for (Character c : chars)
-            out.append(c);
-        return out.toString();
+        GeneratorContext ctx = bound.context();
+        ctx.setFilter(filter);
+        return ctx;
+    }
+
+    public static String generate(int length, boolean lower, boolean upper, boolean digits, boolean symbols) {
+        return generate(length, CharsetPolicy.of(lower, upper, digits, symbols));
+    }
+
+    public static String generate(int length, CharsetPolicy policy) {
+        return context().generate(length, policy);
+    }
+
+    /**
+     * Builds a password that complies with {@code policy} directly, without generate-and-retry.
+     */
+    public static String generate(PasswordPolicy policy) {
+        return context().generate(policy);
+    }
+
+    /**
+     * Fills {@code target} with {@code count} passwords back to back, without separators.
+     */
+    public static int generateBatch(int count, int length, CharsetPolicy policy, char[] target) {
+        return context().generateBatch(count, length, policy, target, 0, false);
+    }
+
+    public static int generateBatch(int count, int length, CharsetPolicy policy, char[] target, int offset,
+            boolean newlines) {
+        return context().generateBatch(count, length, policy, target, offset, newlines);
+    }
+
+    public static int generateBatch(int count, int length, CharsetPolicy policy, CharBuffer target, boolean newlines) {
+        return context().generateBatch(count, length, policy, target, newlines);
     }
 
-    private static char randomChar(String s) {
-        return s.charAt(RAND.nextInt(s.length()));
+    public static int generateBatch(int count, int length, CharsetPolicy policy, ByteBuffer target, boolean newlines) {
+        return context().generateBatch(count, length, policy, target, newlines);
+    }
+
+    public static String generatePassphrase(int words, String separator, WordList list) {
+        return context().generatePassphrase(words, separator, list);
+    }
+
+    /**
+     * Fork-join bulk generator on the current random source; close it when done.
+     */
+    public static ParallelBatchGenerator parallel(int parallelism) {
+        return new ParallelBatchGenerator(parallelism);
     }
 
     public static double entropyBits(String password, boolean lower, boolean upper, boolean digits, boolean symbols) {
-        int pool = 0;
-        if (lower)
-            pool += LOWER.length();
-        if (upper)
-            pool += UPPER.length();
-        if (digits)
-            pool += DIGITS.length();
-        if (symbols)
-            pool += SYMBOLS.length();
-        if (pool == 0)
+        int mask = CharsetPolicy.mask(lower, upper, digits, symbols);
+        if (mask == 0)
             return 0;
-        return password.length() * (Math.log(pool) / Math.log(2));
+        return entropyBits(password, CharsetPolicy.of(mask));
+    }
+
+    /**
+     * Entropy of a password generated with {@code policy}; it does not look at the characters.
+     * Use {@link StrengthEstimator} for passwords that were not generated here.
+     */
+    public static double entropyBits(String password, CharsetPolicy policy) {
+        return password.length() * policy.log2PoolSize;
+    }
+
+    /** Entropy of a password built by {@link #generate(PasswordPolicy)}, adjusted for its rules. */
+    public static double entropyBits(String password, PasswordPolicy policy) {
+        return policy.entropyBits(password);
+    }
+
+    /** Passphrase entropy: log2 of the list size per word. */
+    public static double entropyBits(int words, WordList list) {
+        return words * list.log2Size();
     }
 }
@@ -0,0 +1,496 @@
+package com.francismul.passwordgenerator;
+
+import java.util.Arrays;
+
+/**
+ * Compliance rules beyond "one of each selected class": minimum counts per class, the classes
+ * allowed first and last, and limits on repeated characters, ascending or descending runs and
+ * keyboard walks.
+ * <p>
+ * Passwords are built to comply instead of generated and retried. A backward dynamic
+ * programming table counts, for every position and every set of still-unmet minimums, the
+ * class strings that can be completed from there; each position picks its class in proportion
+ * to that count times the characters the local rules still allow, then a character uniformly
+ * within the class. Minimums and first/last classes therefore never cause a retry. The local
+ * rules only look one character back, so a dead end is possible in principle and restarts the
+ * password, but with classes of ten or more characters it practically never happens.
+ * <p>
+ * Because the local rules are not part of the count, the result is close to, not exactly,
+ * uniform over compliant passwords. {@link #entropyBits(CharSequence)} reports -log2 of a
+ * password's actual probability, the sum over positions of log2 of the weighted options there,
+ * and {@link #estimate} averages it next to the retry rate plain generation would have.
+ * Instances are immutable and thread-safe; they also work as a {@link PasswordFilter}.
+ */
+public final class PasswordPolicy implements PasswordFilter {
+    private static final int MAX_TABLE = 1 << 20;
+    private static final int MAX_LAYOUTS = 16;
+    private static final int CHARS = 128;
+    private static final int REPEAT = 1;
+    private static final int ASCENDING = 1 << 1;
+    private static final int DESCENDING = 1 << 2;
+    private static final int WALK = 1 << 3; // shifted left by the layout index
+
+    /** Monte Carlo summary from {@link #estimate}. */
+    public record Estimate(int samples, double acceptanceRate, double expectedAttempts, double restartRate,
+            double entropyBits, double minEntropyBits, double upperBoundBits) {
+    }
+
+    private final int length;
+    private final CharsetPolicy charset;
+    private final int[] minimums; // indexed by class bit: lower, upper, digits, symbols
+    private final int firstMask;
+    private final int lastMask;
+    private final int maxRepeats;
+    private final int maxSequence;
+    private final int maxWalk;
+    private final KeyboardLayout[] layouts;
+
+    private final int[] classFlags; // CharsetPolicy flag of each selected class, in pool order
+    private final byte[] classOf = new byte[CHARS]; // selected class of each char, -1 outside the pool
+    // 128-char sets as two longs (chars 0-63, 64-127): each class, and each key's neighbours per layout
+    private final long[] classChars;
+    private final long[][] neighbours;
+    private final int[] radix; // a state is the sum of unmet minimum * radix over the classes
+    private final int[] limit;
+    private final int states;
+    private final double[] table; // completions from [pos * states + state], scaled per position
+    private final double upperBoundBits;
+
+    private PasswordPolicy(int length, CharsetPolicy charset, int[] minimums, int firstMask, int lastMask,
+            int maxRepeats, int maxSequence, int maxWalk, KeyboardLayout[] layouts) {
+        if (length < 4)
+            throw new IllegalArgumentException("Length must be >= 4");
+        if (maxRepeats < 0 || maxSequence < 0 || maxWalk < 0)
+            throw new IllegalArgumentException("Limits must be >= 0 (0 turns a rule off)");
+        if (maxWalk > 0 && layouts.length == 0)
+            throw new IllegalArgumentException("Keyboard walk limit needs at least one layout");
+        if (layouts.length > MAX_LAYOUTS)
+            throw new IllegalArgumentException("At most " + MAX_LAYOUTS + " keyboard layouts");
+        if ((firstMask & charset.mask) == 0 || (lastMask & charset.mask) == 0)
+            throw new IllegalArgumentException("First and last character classes must be in " + charset);
+        long required = 0;
+        for (int m : minimums)
+            required += m;
+        if (required > length)
+            throw new IllegalArgumentException("Minimums add up to " + required + ", more than length " + length);
+        this.length = length;
+        this.charset = charset;
+        this.minimums = minimums;
+        this.firstMask = firstMask & charset.mask;
+        this.lastMask = lastMask & charset.mask;
+        this.maxRepeats = maxRepeats;
+        this.maxSequence = maxSequence;
+        this.maxWalk = maxWalk;
+        this.layouts = layouts;
+        this.neighbours = new long[layouts.length][CHARS * 2];
+        for (int l = 0; l < layouts.length; l++) {
+            for (char a = 0; a < CHARS; a++) {
+                for (char b = 0; b < CHARS; b++) {
+                    if (layouts[l].isAdjacent(a, b))
+                        neighbours[l][a * 2 + (b >> 6)] |= 1L << b;
+                }
+            }
+        }
+
+        int classes = charset.classCount();
+        this.classChars = new long[classes * 2];
+        this.classFlags = new int[classes];
+        this.radix = new int[classes];
+        this.limit = new int[classes];
+        Arrays.fill(classOf, (byte) -1);
+        long size = 1;
+        for (int bit = 0, k = 0; bit < minimums.length; bit++) {
+            if ((charset.mask & (1 << bit)) == 0) {
+                if (minimums[bit] > 0)
+                    throw new IllegalArgumentException("Minimum set for a class not in " + charset);
+                continue;
+            }
+            classFlags[k] = 1 << bit;
+            radix[k] = (int) size;
+            limit[k] = minimums[bit] + 1;
+            // Checked before multiplying so size stays within MAX_TABLE and never overflows
+            if (size * limit[k] > MAX_TABLE / (length + 1L))
+                throw new IllegalArgumentException("Minimums too large to plan for length " + length);
+            size *= limit[k];
+            for (int j = 0; j < charset.classLengths[k]; j++) {
+                char c = charset.pool[charset.classOffsets[k] + j];
+                classOf[c] = (byte) k;
+                classChars[k * 2 + (c >> 6)] |= 1L << c;
+            }
+            k++;
+        }
+        this.states = (int) size;
+        this.table = new double[states * (length + 1)];
+        this.upperBoundBits = plan();
+        if (Double.isInfinite(upperBoundBits))
+            throw new IllegalArgumentException("No password of length " + length
+                    + " meets these minimums and first/last classes");
+    }
+
+    /**
+     * Policy for passwords of {@code length} from {@code charset} with today's only rule:
+     * at least one character of each selected class.
+     */
+    public static PasswordPolicy of(int length, CharsetPolicy charset) {
+        int[] minimums = new int[4];
+        for (int bit = 0; bit < minimums.length; bit++)
+            minimums[bit] = (charset.mask & (1 << bit)) != 0 ? 1 : 0;
+        return new PasswordPolicy(length, charset, minimums, charset.mask, charset.mask, 0, 0, 0,
+                new KeyboardLayout[0]);
+    }
+
+    /**
+     * At least {@code count} characters of {@code classFlag} ({@link CharsetPolicy#LOWER} etc.);
+     * 0 drops the default of one.
+     */
+    public PasswordPolicy withMinimum(int classFlag, int count) {
+        if (Integer.bitCount(classFlag) != 1 || classFlag >= 1 << minimums.length)
+            throw new IllegalArgumentException("Not a single character class: " + classFlag);
+        if (count < 0)
+            throw new IllegalArgumentException("Minimum must be >= 0");
+        int[] m = minimums.clone();
+        m[Integer.numberOfTrailingZeros(classFlag)] = count;
+        return new PasswordPolicy(length, charset, m, firstMask, lastMask, maxRepeats, maxSequence, maxWalk,
+                layouts);
+    }
+
+    /** The first character must come from one of the classes in {@code classMask}. */
+    public PasswordPolicy withFirst(int classMask) {
+        return new PasswordPolicy(length, charset, minimums, classMask, lastMask, maxRepeats, maxSequence,
+                maxWalk, layouts);
+    }
+
+    /** The last character must come from one of the classes in {@code classMask}. */
+    public PasswordPolicy withLast(int classMask) {
+        return new PasswordPolicy(length, charset, minimums, firstMask, classMask, maxRepeats, maxSequence,
+                maxWalk, layouts);
+    }
+
+    /** No character more than {@code max} times in a row; 0 turns the rule off. */
+    public PasswordPolicy withMaxRepeats(int max) {
+        return new PasswordPolicy(length, charset, minimums, firstMask, lastMask, max, maxSequence, maxWalk,
+                layouts);
+    }
+
+    /**
+     * No ascending or descending run ("abc", "987") of letters or digits longer than {@code max};
+     * 0 turns the rule off.
+     */
+    public PasswordPolicy withMaxSequence(int max) {
+        return new PasswordPolicy(length, charset, minimums, firstMask, lastMask, maxRepeats, max, maxWalk,
+                layouts);
+    }
+
+    /**
+     * No chain of neighbouring keys ("qwe", "zaq") longer than {@code max} on any of
+     * {@code layouts}; 0 turns the rule off.
+     */
+    public PasswordPolicy withMaxKeyboardWalk(int max, KeyboardLayout... layouts) {
+        return new PasswordPolicy(length, charset, minimums, firstMask, lastMask, maxRepeats, maxSequence, max,
+                layouts.clone());
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public CharsetPolicy charset() {
+        return charset;
+    }
+
+    /** Minimum count for {@code classFlag}. */
+    public int minimum(int classFlag) {
+        return minimums[Integer.numberOfTrailingZeros(classFlag)];
+    }
+
+    /**
+     * log2 of the passwords that meet the minimums and first/last classes, ignoring the local
+     * rules; the most entropy this policy can have.
+     */
+    public double upperBoundBits() {
+        return upperBoundBits;
+    }
+
+    @Override
+    public boolean accept(char[] buf, int offset, int length) {
+        if (length != this.length)
+            return false;
+        int state = states - 1;
+        for (int pos = 0; pos < length; pos++) {
+            char c = buf[offset + pos];
+            int k = c < CHARS ? classOf[c] : -1;
+            if (k < 0 || (classFlags[k] & allowedClasses(pos)) == 0)
+                return false;
+            if (pos > 0) {
+                int spent = spent(buf, offset, pos);
+                char prev = buf[offset + pos - 1];
+                if (isBlocked(c, blocked(prev, spent, 0), blocked(prev, spent, 1)))
+                    return false;
+            }
+            state = next(state, k);
+        }
+        return state == 0;
+    }
+
+    public boolean accept(CharSequence password) {
+        char[] buf = password.toString().toCharArray();
+        boolean ok = accept(buf, 0, buf.length);
+        Arrays.fill(buf, '\0');
+        return ok;
+    }
+
+    /**
+     * -log2 of the probability that this policy builds {@code password}.
+     * @throws IllegalArgumentException if the password does not comply
+     */
+    public double entropyBits(CharSequence password) {
+        char[] buf = password.toString().toCharArray();
+        try {
+            if (!accept(buf, 0, buf.length))
+                throw new IllegalArgumentException("Password does not comply with the policy");
+            double bits = 0;
+            int state = states - 1;
+            for (int pos = 0; pos < length; pos++) {
+                int spent = spent(buf, 0, pos);
+                char prev = pos > 0 ? buf[pos - 1] : 0;
+                long lo = blocked(prev, spent, 0);
+                long hi = blocked(prev, spent, 1);
+                double total = 0;
+                int allowedClasses = allowedClasses(pos);
+                for (int k = 0; k < classFlags.length; k++) {
+                    if ((classFlags[k] & allowedClasses) != 0)
+                        total += options(k, lo, hi) * completions(pos + 1, next(state, k));
+                }
+                state = next(state, classOf[buf[pos]]);
+                bits += log2(total / completions(pos + 1, state));
+            }
+            return bits;
+        } finally {
+            Arrays.fill(buf, '\0');
+        }
+    }
+
+    /**
+     * Monte Carlo estimate over {@code samples} passwords from {@code random}: how often a plain
+     * {@link GeneratorContext#generate(int, CharsetPolicy)} candidate complies, and the entropy of
+     * passwords this policy builds.
+     */
+    public Estimate estimate(int samples, RandomSource random) {
+        if (samples < 1)
+            throw new IllegalArgumentException("Sample count must be >= 1");
+        GeneratorContext plain = new GeneratorContext(random.split(Streams.ESTIMATE));
+        RandomSampler sampler = new RandomSampler(random.split(Streams.ESTIMATE + 1));
+        char[] buf = new char[length];
+        long accepted = 0;
+        long restarts = 0;
+        double bits = 0;
+        double minBits = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < samples; i++) {
+            plain.generate(length, charset, buf, 0);
+            if (accept(buf, 0, length))
+                accepted++;
+            restarts += fill(sampler, buf, 0);
+            double b = entropyBits(new String(buf));
+            bits += b;
+            minBits = Math.min(minBits, b);
+        }
+        Arrays.fill(buf, '\0');
+        double rate = (double) accepted / samples;
+        return new Estimate(samples, rate, accepted == 0 ? Double.POSITIVE_INFINITY : 1 / rate,
+                (double) restarts / samples, bits / samples, minBits, upperBoundBits);
+    }
+
+    /**
+     * Builds one compliant password into {@code dest} at {@code offset}; returns the number of
+     * dead ends that restarted it.
+     */
+    int fill(RandomSampler sampler, char[] dest, int offset) {
+        for (int attempt = 0; attempt < GeneratorContext.MAX_ATTEMPTS; attempt++) {
+            if (build(sampler, dest, offset))
+                return attempt;
+        }
+        Arrays.fill(dest, offset, offset + length, '\0');
+        throw new IllegalStateException("No compliant password after " + GeneratorContext.MAX_ATTEMPTS
+                + " attempts");
+    }
+
+    private boolean build(RandomSampler sampler, char[] dest, int offset) {
+        int state = states - 1;
+        for (int pos = 0; pos < length; pos++) {
+            int spent = spent(dest, offset, pos);
+            char prev = pos > 0 ? dest[offset + pos - 1] : 0;
+            long lo = blocked(prev, spent, 0);
+            long hi = blocked(prev, spent, 1);
+            int allowedClasses = allowedClasses(pos);
+            double total = 0;
+            for (int k = 0; k < classFlags.length; k++) {
+                if ((classFlags[k] & allowedClasses) != 0)
+                    total += options(k, lo, hi) * completions(pos + 1, next(state, k));
+            }
+            if (total == 0)
+                return false;
+            double u = sampler.nextDouble() * total;
+            int chosen = -1;
+            int options = 0;
+            for (int k = 0; k < classFlags.length; k++) {
+                if ((classFlags[k] & allowedClasses) == 0)
+                    continue;
+                int o = options(k, lo, hi);
+                double w = o * completions(pos + 1, next(state, k));
+                if (w == 0)
+                    continue;
+                chosen = k;
+                options = o;
+                if (u < w)
+                    break;
+                u -= w;
+            }
+            dest[offset + pos] = pick(chosen, sampler.nextInt(options), lo, hi);
+            state = next(state, chosen);
+        }
+        return true;
+    }
+
+    // Backward pass; returns log2 of the class-level completions from the start
+    private double plan() {
+        double log2Scale = 0;
+        table[length * states] = 1; // state 0: every minimum met
+        for (int pos = length - 1; pos >= 0; pos--) {
+            int allowedClasses = allowedClasses(pos);
+            double max = 0;
+            for (int s = 0; s < states; s++) {
+                double w = 0;
+                for (int k = 0; k < classFlags.length; k++) {
+                    if ((classFlags[k] & allowedClasses) != 0)
+                        w += charset.classLengths[k] * completions(pos + 1, next(s, k));
+                }
+                table[pos * states + s] = w;
+                max = Math.max(max, w);
+            }
+            if (max == 0)
+                return Double.NEGATIVE_INFINITY;
+            for (int s = 0; s < states; s++)
+                table[pos * states + s] /= max;
+            log2Scale += log2(max);
+        }
+        double start = table[states - 1];
+        return start == 0 ? Double.NEGATIVE_INFINITY : log2(start) + log2Scale;
+    }
+
+    private double completions(int pos, int state) {
+        return table[pos * states + state];
+    }
+
+    private int next(int state, int k) {
+        return (state / radix[k]) % limit[k] > 0 ? state - radix[k] : state;
+    }
+
+    private int allowedClasses(int pos) {
+        if (pos == 0)
+            return firstMask;
+        return pos == length - 1 ? lastMask : charset.mask;
+    }
+
+    // Which continuations of buf[offset + pos - 1] the local rules have used up
+    private int spent(char[] buf, int offset, int pos) {
+        if (pos == 0)
+            return 0;
+        int spent = 0;
+        if (maxRepeats > 0 && run(buf, offset, pos, 0, maxRepeats) >= maxRepeats)
+            spent |= REPEAT;
+        if (maxSequence > 0) {
+            if (run(buf, offset, pos, 1, maxSequence) >= maxSequence)
+                spent |= ASCENDING;
+            if (run(buf, offset, pos, -1, maxSequence) >= maxSequence)
+                spent |= DESCENDING;
+        }
+        if (maxWalk > 0) {
+            for (int l = 0; l < layouts.length; l++) {
+                if (walk(layouts[l], buf, offset, pos) >= maxWalk)
+                    spent |= WALK << l;
+            }
+        }
+        return spent;
+    }
+
+    // Length of the run with a constant step ending at buf[offset + pos - 1], up to cap
+    private static int run(char[] buf, int offset, int pos, int step, int cap) {
+        int n = 1;
+        for (int p = offset + pos - 1; n < cap && p > offset; p--, n++) {
+            char a = buf[p - 1];
+            char b = buf[p];
+            if (b - a != step)
+                break;
+            if (step != 0 && !sameSequenceClass(a, b))
+                break;
+        }
+        return n;
+    }
+
+    private int walk(KeyboardLayout layout, char[] buf, int offset, int pos) {
+        int n = 1;
+        for (int p = offset + pos - 1; n < maxWalk && p > offset && layout.isAdjacent(buf[p - 1], buf[p]); p--)
+            n++;
+        return n;
+    }
+
+    // One half (chars 0-63 or 64-127) of the set of characters that may not follow prev
+    private long blocked(char prev, int spent, int half) {
+        if (spent == 0)
+            return 0;
+        long set = 0;
+        if ((spent & REPEAT) != 0)
+            set |= bit(prev, half);
+        if ((spent & ASCENDING) != 0 && sameSequenceClass(prev, (char) (prev + 1)))
+            set |= bit(prev + 1, half);
+        if ((spent & DESCENDING) != 0 && sameSequenceClass(prev, (char) (prev - 1)))
+            set |= bit(prev - 1, half);
+        for (int l = 0; l < layouts.length; l++) {
+            if ((spent & (WALK << l)) != 0)
+                set |= neighbours[l][prev * 2 + half];
+        }
+        return set;
+    }
+
+    private static long bit(int c, int half) {
+        return c >> 6 == half ? 1L << c : 0;
+    }
+
+    private static boolean isBlocked(char c, long lo, long hi) {
+        return ((c < 64 ? lo : hi) & (1L << c)) != 0;
+    }
+
+    // Characters of class k outside the blocked set
+    private int options(int k, long lo, long hi) {
+        return charset.classLengths[k] - Long.bitCount(classChars[k * 2] & lo)
+                - Long.bitCount(classChars[k * 2 + 1] & hi);
+    }
+
+    // The index-th character of class k outside the blocked set
+    private char pick(int k, int index, long lo, long hi) {
+        int from = charset.classOffsets[k];
+        if ((lo | hi) == 0)
+            return charset.pool[from + index];
+        for (int i = from;; i++) {
+            char c = charset.pool[i];
+            if (!isBlocked(c, lo, hi) && index-- == 0)
+                return c;
+        }
+    }
+
+    private static boolean sameSequenceClass(char a, char b) {
+        int cls = StrengthEstimator.sequenceClass(a);
+        return cls >= 0 && cls == StrengthEstimator.sequenceClass(b);
+    }
+
+    private static double log2(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+
+    @Override
+    public String toString() {
+        return "PasswordPolicy[length=" + length + " " + charset + " minimums="
+                + Arrays.toString(minimums) + " maxRepeats=" + maxRepeats + " maxSequence=" + maxSequence
+                + " maxWalk=" + maxWalk + "]";
+    }
+}
@@ -0,0 +1,267 @@
+package com.francismul.passwordgenerator;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-generated passwords for latency-sensitive callers.
+ * Each (length, policy) pair gets a bounded lock-free ring of ready passwords that a
+ * background thread tops up whenever it drops below the low-water mark, so a hit never
+ * touches the RNG on the caller's thread. Lengths above {@value #MAX_POOLED_LENGTH} and pairs
+ * beyond the first {@value #MAX_RINGS} are not pooled and always generate on the caller's thread. Slots are wiped as soon as a password leaves
+ * the pool, and every remaining slot is wiped on close. Like {@link PasswordGenerator}'s own
+ * contexts, the pool follows {@link PasswordGenerator#setRandomSource}: passwords from a
+ * replaced source are dropped and the rings are refilled from the new one.
+ */
+public final class PasswordPool implements AutoCloseable {
+    public static final int MAX_POOLED_LENGTH = 256;
+    public static final int MAX_RINGS = 64;
+
+    private final int capacity;
+    private final int lowWater;
+    private final ConcurrentHashMap<Long, Ring> rings = new ConcurrentHashMap<>();
+    private final Thread refiller;
+    private GeneratorContext context; // refill thread only
+    private volatile RandomSource source; // the one context is split from
+    private volatile boolean closed;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refilled = new LongAdder();
+    private final LongAdder refillFailures = new LongAdder();
+    private volatile RuntimeException lastRefillFailure;
+    private final AtomicLong lastRefillLagNanos = new AtomicLong();
+    private final AtomicLong maxRefillLagNanos = new AtomicLong();
+
+    public record Metrics(long hits, long misses, long refilled, long refillFailures, long lastRefillLagNanos,
+            long maxRefillLagNanos) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * @param capacity passwords kept per (length, policy); rounded up to a power of two
+     * @param lowWater refill starts when a ring holds fewer than this many passwords
+     */
+    public PasswordPool(int capacity, int lowWater) {
+        if (capacity < 2)
+            throw new IllegalArgumentException("Capacity must be >= 2");
+        if (lowWater < 1 || lowWater > capacity)
+            throw new IllegalArgumentException("Low-water mark must be in [1, capacity]");
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.lowWater = lowWater;
+        this.source = PasswordGenerator.randomSource();
+        this.context = new GeneratorContext(source.split(Streams.POOL));
+        this.refiller = new Thread(this::refillLoop, "password-pool-refill");
+        refiller.setDaemon(true);
+        refiller.start();
+    }
+
+    /**
+     * Takes a ready password, falling back to generating on the calling thread when the ring is empty.
+     */
+    public String take(int length, CharsetPolicy policy) {
+        char[] buf = new char[length];
+        take(length, policy, buf, 0);
+        String out = new String(buf);
+        Arrays.fill(buf, '\0');
+        return out;
+    }
+
+    /**
+     * Copies a ready password into {@code dest}. Returns true on a pool hit.
+     */
+    public boolean take(int length, CharsetPolicy policy, char[] dest, int offset) {
+        if (closed)
+            throw new IllegalStateException("Pool is closed");
+        if (length < 4)
+            throw new IllegalArgumentException("Length must be >= 4");
+        Ring ring = ring(length, policy);
+        // Until the refiller rebinds, ready passwords still come from a replaced source
+        boolean stale = source != PasswordGenerator.randomSource();
+        boolean hit = ring != null && !stale && ring.poll(dest, offset);
+        if (hit) {
+            hits.increment();
+        } else {
+            misses.increment();
+            PasswordGenerator.context().generate(length, policy, dest, offset);
+        }
+        if (ring == null)
+            return false;
+        if (stale || ring.size() < lowWater && ring.lowSince.compareAndSet(0, System.nanoTime()))
+            LockSupport.unpark(refiller);
+        return hit;
+    }
+
+    /** Why the last refill failed, e.g. a filter that rejected every candidate; null if none has. */
+    public RuntimeException lastRefillFailure() {
+        return lastRefillFailure;
+    }
+
+    /** Ready passwords currently held for the given pair. */
+    public int available(int length, CharsetPolicy policy) {
+        Ring ring = rings.get(key(length, policy));
+        return ring == null ? 0 : ring.size();
+    }
+
+    public Metrics metrics() {
+        return new Metrics(hits.sum(), misses.sum(), refilled.sum(), refillFailures.sum(), lastRefillLagNanos.get(),
+                maxRefillLagNanos.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(refiller);
+        try {
+            refiller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Ring ring : rings.values())
+            ring.wipe();
+        rings.clear();
+    }
+
+    // Null when the pair is not pooled; the ring count may overshoot MAX_RINGS by a racing take or two
+    private Ring ring(int length, CharsetPolicy policy) {
+        if (length > MAX_POOLED_LENGTH)
+            return null;
+        long key = key(length, policy);
+        Ring ring = rings.get(key);
+        if (ring == null && rings.size() < MAX_RINGS)
+            ring = rings.computeIfAbsent(key, k -> new Ring(length, policy));
+        return ring;
+    }
+
+    private static long key(int length, CharsetPolicy policy) {
+        return ((long) length << 8) | policy.mask();
+    }
+
+    private void refillLoop() {
+        while (!closed) {
+            RandomSource current = PasswordGenerator.randomSource();
+            if (current != source)
+                rebind(current);
+            boolean worked = false;
+            for (Ring ring : rings.values()) {
+                if (closed)
+                    break;
+                // Only rings that crossed the low-water mark are topped up
+                if (ring.lowSince.get() == 0)
+                    continue;
+                // Pool hits must pass the same filter as misses generated through PasswordGenerator
+                context.setFilter(PasswordGenerator.filter());
+                try {
+                    while (!closed && ring.offer(context))
+                        refilled.increment();
+                } catch (RuntimeException e) {
+                    // Keep the thread alive; the next take below the low-water mark retries
+                    refillFailures.increment();
+                    lastRefillFailure = e;
+                }
+                worked = true;
+                long since = ring.lowSince.getAndSet(0);
+                if (since != 0) {
+                    long lag = System.nanoTime() - since;
+                    lastRefillLagNanos.set(lag);
+                    maxRefillLagNanos.accumulateAndGet(lag, Math::max);
+                }
+            }
+            if (!worked)
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+        }
+    }
+
+    // Drains every ring before publishing the new source, so takers never see an old password as a hit
+    private void rebind(RandomSource current) {
+        context = new GeneratorContext(current.split(Streams.POOL));
+        for (Ring ring : rings.values()) {
+            char[] scratch = new char[ring.length];
+            while (ring.poll(scratch, 0))
+                Arrays.fill(scratch, '\0');
+            ring.lowSince.compareAndSet(0, System.nanoTime());
+        }
+        source = current;
+    }
+
+    // Bounded lock-free ring after Vyukov's MPMC queue, with the refill thread as its only producer;
+    // each slot owns its char storage
+    private final class Ring {
+        final int length;
+        final CharsetPolicy policy;
+        final char[][] slots;
+        final char[] scratch; // refill thread only
+        final AtomicLongArray sequence;
+        final AtomicLong head = new AtomicLong();
+        final AtomicLong tail = new AtomicLong();
+        final AtomicLong lowSince = new AtomicLong(); // 0 until a take sees the ring low and unparks the refiller
+
+        Ring(int length, CharsetPolicy policy) {
+            this.length = length;
+            this.policy = policy;
+            this.slots = new char[capacity][length];
+            this.scratch = new char[length];
+            this.sequence = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++)
+                sequence.set(i, i);
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head.get());
+        }
+
+        // With a single producer a free slot stays free until it is claimed here. The password is
+        // generated before the claim, so a generate that throws leaves the ring untouched.
+        boolean offer(GeneratorContext ctx) {
+            long pos = tail.get();
+            int idx = (int) (pos & (capacity - 1));
+            if (sequence.get(idx) != pos)
+                return false;
+            try {
+                ctx.generate(length, policy, scratch, 0);
+                tail.set(pos + 1);
+                System.arraycopy(scratch, 0, slots[idx], 0, length);
+            } finally {
+                Arrays.fill(scratch, '\0');
+            }
+            sequence.set(idx, pos + 1);
+            return true;
+        }
+
+        boolean poll(char[] dest, int offset) {
+            int mask = capacity - 1;
+            long pos = head.get();
+            while (true) {
+                int idx = (int) (pos & mask);
+                long dif = sequence.get(idx) - (pos + 1);
+                if (dif == 0) {
+                    if (head.compareAndSet(pos, pos + 1)) {
+                        char[] slot = slots[idx];
+                        System.arraycopy(slot, 0, dest, offset, length);
+                        Arrays.fill(slot, '\0');
+                        sequence.set(idx, pos + capacity);
+                        return true;
+                    }
+                    pos = head.get();
+                } else if (dif < 0) {
+                    return false;
+                } else {
+                    pos = head.get();
+                }
+            }
+        }
+
+        void wipe() {
+            for (char[] slot : slots)
+                Arrays.fill(slot, '\0');
+        }
+    }
+}
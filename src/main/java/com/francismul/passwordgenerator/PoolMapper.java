@@ -0,0 +1,77 @@
+package com.francismul.passwordgenerator;
+
+/**
+ * Turns a block of random bytes into pool characters for bulk generation.
+ * Each byte is masked to ceil(log2(pool)) bits and rejected when the index falls outside
+ * the pool, so every character stays uniform. This class is the scalar reference;
+ * {@code VectorPoolMapper} does the same with the incubating Vector API and is only loaded
+ * when the JVM starts with {@code --add-modules jdk.incubator.vector}.
+ */
+class PoolMapper {
+    /** Set to {@code false} to keep the scalar path even when the Vector API is present. */
+    static final String PROPERTY = "passwordgenerator.vector";
+    static final boolean VECTOR_AVAILABLE = vectorAvailable();
+
+    private static final PoolMapper[] VECTOR_CACHE = new PoolMapper[16];
+
+    final int poolSize;
+    final int indexMask;
+    final byte[] ascii;
+
+    PoolMapper(CharsetPolicy policy) {
+        this.poolSize = policy.pool.length;
+        this.indexMask = (Integer.highestOneBit(poolSize - 1) << 1) - 1;
+        this.ascii = new byte[poolSize];
+        for (int i = 0; i < poolSize; i++)
+            ascii[i] = (byte) policy.pool[i];
+    }
+
+    static PoolMapper scalar(CharsetPolicy policy) {
+        return new PoolMapper(policy);
+    }
+
+    /** The interned Vector API mapper for {@code policy}. */
+    static PoolMapper vector(CharsetPolicy policy) {
+        if (!VECTOR_AVAILABLE)
+            throw new UnsupportedOperationException("Start the JVM with --add-modules jdk.incubator.vector");
+        PoolMapper m = VECTOR_CACHE[policy.mask];
+        if (m == null) {
+            m = newVectorMapper(policy);
+            VECTOR_CACHE[policy.mask] = m; // benign race: every instance is equivalent
+        }
+        return m;
+    }
+
+    /**
+     * Maps {@code random[from, to)} and writes the accepted characters to {@code dest} at
+     * {@code destPos}; returns how many were written. {@code dest} must have room for
+     * {@code to - from} bytes, the case where nothing is rejected; bytes after the ones
+     * returned may be overwritten.
+     */
+    int map(byte[] random, int from, int to, byte[] dest, int destPos) {
+        int n = destPos;
+        for (int i = from; i < to; i++) {
+            int v = random[i] & indexMask;
+            if (v < poolSize)
+                dest[n++] = ascii[v];
+        }
+        return n - destPos;
+    }
+
+    // Reflective so the rest of the tree compiles without the incubator module; the pom
+    // builds VectorPoolMapper in an execution of its own
+    private static PoolMapper newVectorMapper(CharsetPolicy policy) {
+        try {
+            return (PoolMapper) Class.forName(PoolMapper.class.getPackageName() + ".VectorPoolMapper")
+                    .getDeclaredConstructor(CharsetPolicy.class).newInstance(policy);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Vector API mapper unavailable", e);
+        }
+    }
+
+    private static boolean vectorAvailable() {
+        if (!Boolean.parseBoolean(System.getProperty(PROPERTY, "true")))
+            return false;
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+}
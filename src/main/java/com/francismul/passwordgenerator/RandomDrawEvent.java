@@ -0,0 +1,22 @@
+package com.francismul.passwordgenerator;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event around one block refill from a {@link RandomSource}. */
+@Name("com.francismul.passwordgenerator.RandomDraw")
+@Label("Random Draw")
+@Category("Password Generator")
+@Description("Entropy block requested from the random source")
+final class RandomDrawEvent extends Event {
+    @Label("Bytes")
+    @DataAmount
+    int bytes;
+
+    @Label("Source")
+    String source;
+}
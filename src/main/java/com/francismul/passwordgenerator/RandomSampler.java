@@ -0,0 +1,103 @@
+package com.francismul.passwordgenerator;
+
+/**
+ * Bit-efficient, unbiased bounded sampling on top of a block-buffered {@link RandomSource}.
+ * Each draw takes only ceil(log2(bound)) bits from a reservoir and rejects values
+ * outside the bound, so a 94-char pool costs about 9.5 bits per character instead
+ * of a full synchronized nextInt call. Not thread-safe.
+ */
+public final class RandomSampler {
+    static final int DEFAULT_BLOCK = 4096;
+
+    private final RandomSource random;
+    private final byte[] block;
+    private int blockPos;
+    private long reservoir;
+    private int reservoirBits;
+    private long bitsConsumed;
+    private long refills;
+
+    public RandomSampler(RandomSource random) {
+        this(random, DEFAULT_BLOCK);
+    }
+
+    public RandomSampler(RandomSource random, int blockSize) {
+        if (blockSize < 8)
+            throw new IllegalArgumentException("Block size must be >= 8");
+        this.random = random;
+        this.block = new byte[blockSize];
+        this.blockPos = blockSize;
+    }
+
+    /**
+     * Returns a uniformly distributed value in [0, bound).
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0)
+            throw new IllegalArgumentException("Bound must be positive");
+        if (bound == 1)
+            return 0;
+        int bits = 32 - Integer.numberOfLeadingZeros(bound - 1);
+        int r;
+        do {
+            r = takeBits(bits);
+        } while (r >= bound);
+        return r;
+    }
+
+    /**
+     * Returns a uniformly distributed double in [0, 1) built from 53 random bits.
+     */
+    public double nextDouble() {
+        long high = takeBits(26);
+        long low = takeBits(27);
+        return ((high << 27) | low) * 0x1.0p-53;
+    }
+
+    /**
+     * Fills {@code bytes} straight from the source, bypassing the reservoir.
+     */
+    public void nextBytes(byte[] bytes) {
+        if (GeneratorMetrics.ENABLED)
+            GeneratorMetrics.draw(random, bytes);
+        else
+            random.nextBytes(bytes);
+        bitsConsumed += 8L * bytes.length;
+        refills++;
+    }
+
+    /** Total random bits consumed, including rejected draws. */
+    public long bitsConsumed() {
+        return bitsConsumed;
+    }
+
+    /** Number of times the underlying source was asked for a new block. */
+    public long refills() {
+        return refills;
+    }
+
+    private int takeBits(int n) {
+        if (reservoirBits < n)
+            topUp();
+        int r = (int) (reservoir & ((1L << n) - 1));
+        reservoir >>>= n;
+        reservoirBits -= n;
+        bitsConsumed += n;
+        return r;
+    }
+
+    private void topUp() {
+        while (reservoirBits <= 56) {
+            if (blockPos == block.length) {
+                if (GeneratorMetrics.ENABLED)
+                    GeneratorMetrics.draw(random, block);
+                else
+                    random.nextBytes(block);
+                blockPos = 0;
+                refills++;
+            }
+            reservoir |= (long) (block[blockPos++] & 0xff) << reservoirBits;
+            reservoirBits += 8;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.francismul.passwordgenerator;
+
+import java.security.SecureRandom;
+
+/**
+ * Source of the random bytes behind password generation.
+ * Implementations need not be thread-safe for {@link #nextBytes}; callers that
+ * fan work out across threads take one {@link #split} stream per worker.
+ */
+public interface RandomSource {
+
+    void nextBytes(byte[] bytes);
+
+    /** False for sources whose output must never be used as a real credential. */
+    boolean isSecure();
+
+    /**
+     * Returns an independent stream for the given index. Seeded sources derive it
+     * deterministically, so the same seed and index always yield the same bytes.
+     */
+    RandomSource split(long streamIndex);
+
+    /** Wraps a SecureRandom; every split shares the wrapped instance. */
+    static RandomSource of(SecureRandom random) {
+        return new RandomSource() {
+            @Override
+            public void nextBytes(byte[] bytes) {
+                random.nextBytes(bytes);
+            }
+
+            @Override
+            public boolean isSecure() {
+                return true;
+            }
+
+            @Override
+            public RandomSource split(long streamIndex) {
+                return this;
+            }
+        };
+    }
+
+    /**
+     * Fast, reproducible and NOT cryptographically secure. For test fixtures only.
+     */
+    static RandomSource seeded(long seed) {
+        return new SeededRandomSource(seed);
+    }
+}
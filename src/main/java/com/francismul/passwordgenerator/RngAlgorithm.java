@@ -0,0 +1,42 @@
+package com.francismul.passwordgenerator;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * SecureRandom algorithms that striped generation can be backed by.
+ */
+public enum RngAlgorithm {
+    DRBG("DRBG"),
+    NATIVE_NON_BLOCKING("NativePRNGNonBlocking"),
+    SHA1PRNG("SHA1PRNG");
+
+    private final String jcaName;
+
+    RngAlgorithm(String jcaName) {
+        this.jcaName = jcaName;
+    }
+
+    public String jcaName() {
+        return jcaName;
+    }
+
+    /**
+     * Creates a new, independently self-seeded instance.
+     */
+    public SecureRandom newInstance() {
+        try {
+            return SecureRandom.getInstance(jcaName);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(jcaName + " is not available on this platform", e);
+        }
+    }
+
+    public static RngAlgorithm fromName(String name) {
+        for (RngAlgorithm a : values()) {
+            if (a.name().equalsIgnoreCase(name) || a.jcaName.equalsIgnoreCase(name))
+                return a;
+        }
+        throw new IllegalArgumentException("Unknown RNG algorithm: " + name);
+    }
+}
@@ -0,0 +1,87 @@
+package com.francismul.passwordgenerator;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Secure default {@link RandomSource}; decides which SecureRandom each thread draws from.
+ * The shared mode keeps the historic single instance; the per-thread and striped
+ * modes give threads independently seeded instances so they stop serializing on one lock.
+ */
+public final class SecureRandomSource implements RandomSource {
+    public enum Mode {
+        SHARED, PER_THREAD, STRIPED
+    }
+
+    private final Mode mode;
+    private final RngAlgorithm algorithm;
+    private final SecureRandom[] stripes;
+    private final AtomicInteger nextStripe = new AtomicInteger();
+    private final ThreadLocal<SecureRandom> current = ThreadLocal.withInitial(this::acquire);
+
+    private SecureRandomSource(Mode mode, RngAlgorithm algorithm, SecureRandom[] stripes) {
+        this.mode = mode;
+        this.algorithm = algorithm;
+        this.stripes = stripes;
+    }
+
+    public static SecureRandomSource shared(SecureRandom random) {
+        return new SecureRandomSource(Mode.SHARED, null, new SecureRandom[] { random });
+    }
+
+    public static SecureRandomSource perThread(RngAlgorithm algorithm) {
+        return new SecureRandomSource(Mode.PER_THREAD, algorithm, null);
+    }
+
+    public static SecureRandomSource striped(RngAlgorithm algorithm) {
+        return striped(algorithm, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static SecureRandomSource striped(RngAlgorithm algorithm, int stripeCount) {
+        if (stripeCount < 1)
+            throw new IllegalArgumentException("Stripe count must be >= 1");
+        SecureRandom[] stripes = new SecureRandom[stripeCount];
+        for (int i = 0; i < stripeCount; i++)
+            stripes[i] = algorithm.newInstance();
+        return new SecureRandomSource(Mode.STRIPED, algorithm, stripes);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /** The algorithm behind per-thread or striped instances, or null in shared mode. */
+    public RngAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        current.get().nextBytes(bytes);
+    }
+
+    @Override
+    public boolean isSecure() {
+        return true;
+    }
+
+    /**
+     * Binds a stream to its own instance (per-thread mode) or the next stripe.
+     */
+    @Override
+    public RandomSource split(long streamIndex) {
+        return RandomSource.of(acquire());
+    }
+
+    // Instance the next split or thread binds to
+    SecureRandom acquire() {
+        switch (mode) {
+            case PER_THREAD:
+                return algorithm.newInstance();
+            case STRIPED:
+                return stripes[Math.floorMod(nextStripe.getAndIncrement(), stripes.length)];
+            default:
+                return stripes[0];
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.francismul.passwordgenerator;
+
+/**
+ * NOT SECURE. Deterministic xoshiro256** source for reproducible load-test fixtures.
+ * Output is predictable from the seed; never use it for real credentials.
+ * Streams are derived from the parent stream and the index rather than from call order, so
+ * work split across any number of threads reproduces the same bytes per split path, and
+ * {@code split(i).split(j)} never replays {@code split(j)}.
+ */
+public final class SeededRandomSource implements RandomSource {
+    private final long seed;
+    private final long stream; // identifies the split path from the root, which is 0
+    private long s0, s1, s2, s3;
+
+    public SeededRandomSource(long seed) {
+        this(seed, 0);
+    }
+
+    private SeededRandomSource(long seed, long stream) {
+        this.seed = seed;
+        this.stream = stream;
+        long x = seed ^ mix(stream + 0x632BE59BD9B4E019L);
+        s0 = mix(x += 0x9E3779B97F4A7C15L);
+        s1 = mix(x += 0x9E3779B97F4A7C15L);
+        s2 = mix(x += 0x9E3779B97F4A7C15L);
+        s3 = mix(x + 0x9E3779B97F4A7C15L);
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public SeededRandomSource split(long streamIndex) {
+        // mix is a bijection, so siblings never collide; the parent's path keeps branches apart
+        return new SeededRandomSource(seed, mix(stream * 0x9E3779B97F4A7C15L + streamIndex + 1));
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        int i = 0;
+        int n = bytes.length;
+        for (; i <= n - 8; i += 8) {
+            long r = nextLong();
+            bytes[i] = (byte) r;
+            bytes[i + 1] = (byte) (r >>> 8);
+            bytes[i + 2] = (byte) (r >>> 16);
+            bytes[i + 3] = (byte) (r >>> 24);
+            bytes[i + 4] = (byte) (r >>> 32);
+            bytes[i + 5] = (byte) (r >>> 40);
+            bytes[i + 6] = (byte) (r >>> 48);
+            bytes[i + 7] = (byte) (r >>> 56);
+        }
+        if (i < n) {
+            for (long r = nextLong(); i < n; i++, r >>>= 8)
+                bytes[i] = (byte) r;
+        }
+    }
+
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,17 @@
+package com.francismul.passwordgenerator;
+
+/**
+ * Split-index ranges, one per consumer of the global {@link RandomSource}. Under a seeded
+ * source the caller threads, the pool, the server, bulk runs and policy estimates would
+ * otherwise number their streams from 0 alike and replay each other's passwords.
+ */
+final class Streams {
+    static final long THREADS = 0;
+    static final long POOL = 1L << 56;
+    static final long SERVER = 2L << 56;
+    static final long BATCH = 3L << 56;
+    static final long ESTIMATE = 4L << 56;
+
+    private Streams() {
+    }
+}
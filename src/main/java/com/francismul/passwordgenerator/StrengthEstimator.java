@@ -0,0 +1,522 @@
+package com.francismul.passwordgenerator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pattern-aware strength estimate for any password, including ones people chose themselves.
+ * Finds dictionary words (with capitalisation and l33t substitutions), keyboard walks,
+ * repeats, character sequences and dates, then picks the cheapest way for an attacker to
+ * cover the whole password with one left-to-right dynamic programming pass. Characters
+ * not covered by a pattern are priced as brute force over the character classes present,
+ * so a truly random password scores close to {@link PasswordGenerator#entropyBits}.
+ * <p>
+ * Every pattern is bounded in length, so scoring is linear in the password length.
+ * Instances are immutable and thread-safe.
+ */
+public final class StrengthEstimator {
+    private static final String DEFAULT_WORDS = "common-words.txt";
+    private static final int MAX_SPAN = 32;
+    private static final int MAX_REPEAT_UNIT = 8;
+    private static final double SEGMENT_BITS = 1.0;
+    private static final double MIN_SINGLE_BITS = log2(10);
+    private static final double MIN_MULTI_BITS = log2(50);
+    private static final int MIN_YEAR_SPACE = 20;
+    private static final int REFERENCE_YEAR = Year.now().getValue();
+    private static final String DATE_SEPARATORS = "/-._ \\";
+    // Plain letters a l33t character may stand for
+    private static final String[] L33T = new String[128];
+
+    static {
+        L33T['4'] = "a";
+        L33T['@'] = "a";
+        L33T['8'] = "b";
+        L33T['3'] = "e";
+        L33T['6'] = "g";
+        L33T['9'] = "g";
+        L33T['1'] = "il";
+        L33T['|'] = "il";
+        L33T['!'] = "i";
+        L33T['0'] = "o";
+        L33T['$'] = "s";
+        L33T['5'] = "s";
+        L33T['7'] = "t";
+        L33T['+'] = "t";
+        L33T['2'] = "z";
+    }
+
+    public enum Pattern { DICTIONARY, SPATIAL, REPEAT, SEQUENCE, DATE, BRUTEFORCE }
+
+    /** One segment of the cheapest cover: {@code password[start, end)} costs {@code bits}. */
+    public record Match(Pattern pattern, int start, int end, double bits) {
+    }
+
+    /** Estimated log2 of the attacker's guesses, and the segments that produced it. */
+    public record Result(double bits, List<Match> matches) {
+    }
+
+    private static final class Standard {
+        static final StrengthEstimator INSTANCE = new StrengthEstimator(loadDefaultWords(),
+                KeyboardLayout.QWERTY, KeyboardLayout.KEYPAD);
+    }
+
+    private final PackedTrie dictionary;
+    private final KeyboardLayout[] layouts;
+
+    /**
+     * @param rankedWords lowercase words, most common first; a word's rank is its guess count
+     */
+    public StrengthEstimator(List<String> rankedWords, KeyboardLayout... layouts) {
+        this.dictionary = new PackedTrie(rankedWords);
+        this.layouts = layouts.clone();
+    }
+
+    /** Estimator with the bundled word list and the QWERTY and keypad layouts. */
+    public static StrengthEstimator standard() {
+        return Standard.INSTANCE;
+    }
+
+    /** Reads a ranked word list, one word per line; blank lines and '#' comments are skipped. */
+    public static List<String> readWords(Path path) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return readWords(in);
+        }
+    }
+
+    /** Estimated log2 of the guesses needed for {@code password}. */
+    public double bits(CharSequence password) {
+        return score(password, 0, password.length(), classCardinality(password), null);
+    }
+
+    /** Like {@link #bits} but also returns the matched segments. */
+    public Result estimate(CharSequence password) {
+        List<Match> matches = new ArrayList<>();
+        double bits = score(password, 0, password.length(), classCardinality(password), matches);
+        return new Result(bits, Collections.unmodifiableList(matches));
+    }
+
+    // Forward DP: for each prefix, the cheapest cover ending in a pattern match and ending in brute force
+    private double score(CharSequence s, int from, int to, int cardinality, List<Match> trace) {
+        int n = to - from;
+        if (n == 0)
+            return 0;
+        double bruteBits = log2(cardinality);
+        Dp dp = new Dp(n, trace != null);
+        int[] upperPrefix = new int[n + 1];
+        int[] lowerPrefix = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(from + i);
+            upperPrefix[i + 1] = upperPrefix[i] + (Character.isUpperCase(c) ? 1 : 0);
+            lowerPrefix[i + 1] = lowerPrefix[i] + (Character.isLowerCase(c) ? 1 : 0);
+        }
+        for (int k = 0; k < n; k++) {
+            final int i = k;
+            double base = dp.best(i);
+            // Extending a brute-force run is free of the per-segment cost
+            double extend = dp.brute[i] + bruteBits;
+            double open = dp.match[i] + bruteBits + (i > 0 ? SEGMENT_BITS : 0);
+            if (extend <= open) {
+                dp.setBrute(i + 1, extend, true);
+            } else {
+                dp.setBrute(i + 1, open, false);
+            }
+            Relax relax = (pattern, end, bits) -> dp.relax(i, end, pattern,
+                    Math.max(bits, end - i == 1 ? MIN_SINGLE_BITS : MIN_MULTI_BITS), base);
+            dictionary(s, from, to, i, upperPrefix, lowerPrefix, relax);
+            spatial(s, from, to, i, relax);
+            sequence(s, from, to, i, relax);
+            repeat(s, from, to, i, cardinality, relax);
+            date(s, from, to, i, relax);
+        }
+        double bits = Math.min(dp.match[n], dp.brute[n]);
+        if (trace != null)
+            dp.trace(trace, from, bruteBits);
+        return bits;
+    }
+
+    private interface Relax {
+        void at(Pattern pattern, int end, double bits);
+    }
+
+    private void dictionary(CharSequence s, int from, int to, int i, int[] upper, int[] lower, Relax relax) {
+        walk(s, from, Math.min(to, from + i + MAX_SPAN), from + i, PackedTrie.ROOT, 0, i, upper, lower, relax);
+    }
+
+    // Depth-first over the trie; l33t characters branch into each letter they may stand for
+    private void walk(CharSequence s, int from, int limit, int pos, int node, int subs, int i,
+            int[] upper, int[] lower, Relax relax) {
+        if (pos > from + i) {
+            int rank = dictionary.rank(node);
+            if (rank > 0) {
+                int end = pos - from;
+                double bits = log2(rank) + uppercaseBits(s, from, i, end, upper, lower) + subs;
+                relax.at(Pattern.DICTIONARY, end, bits);
+            }
+        }
+        if (pos == limit)
+            return;
+        char c = s.charAt(pos);
+        int next = dictionary.child(node, Character.toLowerCase(c));
+        if (next >= 0)
+            walk(s, from, limit, pos + 1, next, subs, i, upper, lower, relax);
+        String plain = c < 128 ? L33T[c] : null;
+        if (plain != null) {
+            for (int k = 0; k < plain.length(); k++) {
+                next = dictionary.child(node, plain.charAt(k));
+                if (next >= 0)
+                    walk(s, from, limit, pos + 1, next, subs + 1, i, upper, lower, relax);
+            }
+        }
+    }
+
+    // All-lower costs nothing; first, last or all caps one bit; otherwise every way to place the capitals
+    private static double uppercaseBits(CharSequence s, int from, int i, int end, int[] upper, int[] lower) {
+        int u = upper[end] - upper[i];
+        int l = lower[end] - lower[i];
+        if (u == 0)
+            return 0;
+        if (l == 0 || (u == 1 && (Character.isUpperCase(s.charAt(from + i))
+                || Character.isUpperCase(s.charAt(from + end - 1)))))
+            return 1;
+        double variations = 0;
+        for (int k = 1; k <= Math.min(u, l); k++)
+            variations += binomial(u + l, k);
+        return log2(variations);
+    }
+
+    private void spatial(CharSequence s, int from, int to, int i, Relax relax) {
+        int limit = Math.min(to, from + i + MAX_SPAN);
+        for (KeyboardLayout layout : layouts) {
+            int start = from + i;
+            int turns = 0;
+            int shifted = layout.isShifted(s.charAt(start)) ? 1 : 0;
+            int lastDirection = -1;
+            for (int p = start + 1; p < limit; p++) {
+                int d = layout.direction(s.charAt(p - 1), s.charAt(p));
+                if (d < 0)
+                    break;
+                if (d != lastDirection)
+                    turns++;
+                lastDirection = d;
+                if (layout.isShifted(s.charAt(p)))
+                    shifted++;
+                int length = p + 1 - start;
+                if (length >= 3)
+                    relax.at(Pattern.SPATIAL, p + 1 - from, spatialBits(layout, length, turns, shifted));
+            }
+        }
+    }
+
+    // Guesses for walks up to this length with up to this many turns, from any key
+    private static double spatialBits(KeyboardLayout layout, int length, int turns, int shifted) {
+        double keys = layout.keys();
+        double degree = layout.averageDegree();
+        double guesses = 0;
+        for (int l = 2; l <= length; l++) {
+            for (int t = 1; t <= Math.min(turns, l - 1); t++)
+                guesses += binomial(l - 1, t - 1) * keys * Math.pow(degree, t);
+        }
+        int unshifted = length - shifted;
+        if (shifted > 0) {
+            if (unshifted == 0) {
+                guesses *= 2;
+            } else {
+                double variations = 0;
+                for (int k = 1; k <= Math.min(shifted, unshifted); k++)
+                    variations += binomial(length, k);
+                guesses *= variations;
+            }
+        }
+        return log2(guesses);
+    }
+
+    // Runs with a constant step of 1..5 within one character class, e.g. "abcd", "9753", "ACEG"
+    private static void sequence(CharSequence s, int from, int to, int i, Relax relax) {
+        int start = from + i;
+        int limit = Math.min(to, start + MAX_SPAN);
+        if (start + 2 >= limit)
+            return;
+        char first = s.charAt(start);
+        int cls = sequenceClass(first);
+        int delta = s.charAt(start + 1) - first;
+        if (cls < 0 || delta == 0 || Math.abs(delta) > 5)
+            return;
+        double base;
+        if (first == 'a' || first == 'A' || first == 'z' || first == 'Z' || first == '0' || first == '1'
+                || first == '9')
+            base = 4;
+        else if (cls == 2)
+            base = 10;
+        else
+            base = cls == 1 ? 52 : 26;
+        if (delta < 0)
+            base *= 2;
+        for (int p = start + 1; p < limit; p++) {
+            char c = s.charAt(p);
+            if (sequenceClass(c) != cls || c - s.charAt(p - 1) != delta)
+                break;
+            int length = p + 1 - start;
+            if (length >= 3)
+                relax.at(Pattern.SEQUENCE, p + 1 - from, log2(base * length));
+        }
+    }
+
+    static int sequenceClass(char c) {
+        if (c >= 'a' && c <= 'z')
+            return 0;
+        if (c >= 'A' && c <= 'Z')
+            return 1;
+        if (c >= '0' && c <= '9')
+            return 2;
+        return -1;
+    }
+
+    // A short unit typed several times: priced as the unit itself plus the repeat count
+    private void repeat(CharSequence s, int from, int to, int i, int cardinality, Relax relax) {
+        int start = from + i;
+        for (int unit = 1; unit <= MAX_REPEAT_UNIT && start + unit * 2 <= to; unit++) {
+            int copies = 1;
+            while (start + (copies + 1) * unit <= to && (copies + 1) * unit <= MAX_SPAN
+                    && regionMatches(s, start, start + copies * unit, unit))
+                copies++;
+            int length = copies * unit;
+            if (copies < 2 || length < 3)
+                continue;
+            double unitBits = score(s, start, start + unit, cardinality, null);
+            relax.at(Pattern.REPEAT, i + length, unitBits + log2(copies));
+        }
+    }
+
+    private static boolean regionMatches(CharSequence s, int a, int b, int length) {
+        for (int k = 0; k < length; k++) {
+            if (s.charAt(a + k) != s.charAt(b + k))
+                return false;
+        }
+        return true;
+    }
+
+    // Years (1900-2099), and day/month/year in common orders with or without a separator
+    private static void date(CharSequence s, int from, int to, int i, Relax relax) {
+        int start = from + i;
+        int digits = 0;
+        while (start + digits < to && digits < 8 && isDigit(s.charAt(start + digits)))
+            digits++;
+        if (digits >= 4) {
+            int year = number(s, start, 4);
+            if (year >= 1900 && year <= 2099)
+                relax.at(Pattern.DATE, i + 4, log2(yearSpace(year)));
+        }
+        if (digits >= 6) {
+            int a = number(s, start, 2), b = number(s, start + 2, 2), c = number(s, start + 4, 2);
+            if (validDate(a, b, c) || validDate(b, a, c))
+                relax.at(Pattern.DATE, i + 6, dateBits(c, false));
+            else if (validDate(c, b, a))
+                relax.at(Pattern.DATE, i + 6, dateBits(a, false));
+        }
+        if (digits >= 8) {
+            int a = number(s, start, 2), b = number(s, start + 2, 2);
+            int tailYear = number(s, start + 4, 4);
+            int headYear = number(s, start, 4);
+            if (validDate(a, b, tailYear) || validDate(b, a, tailYear))
+                relax.at(Pattern.DATE, i + 8, dateBits(tailYear, false));
+            else if (validDate(number(s, start + 6, 2), number(s, start + 4, 2), headYear))
+                relax.at(Pattern.DATE, i + 8, dateBits(headYear, false));
+        }
+        // Separated: a{1,4} sep b{1,2} sep c{1,4}, same separator both times
+        for (int la = 1; la <= Math.min(4, digits); la++) {
+            int p = start + la;
+            if (p >= to || DATE_SEPARATORS.indexOf(s.charAt(p)) < 0)
+                continue;
+            char sep = s.charAt(p);
+            for (int lb = 1; lb <= 2; lb++) {
+                int q = p + 1 + lb;
+                if (q >= to || s.charAt(q) != sep || !allDigits(s, p + 1, q))
+                    continue;
+                for (int lc = 1; lc <= 4; lc++) {
+                    int end = q + 1 + lc;
+                    if (end > to || !allDigits(s, q + 1, end))
+                        break;
+                    // d/m/yy, m/d/yyyy or yyyy-m-d
+                    if (la == 4 ? lc > 2 : la > 2 || (lc != 2 && lc != 4))
+                        continue;
+                    int a = number(s, start, la);
+                    int b = number(s, p + 1, lb);
+                    int c = number(s, q + 1, lc);
+                    int year = la == 4 ? a : c;
+                    boolean valid = la == 4 ? validDate(c, b, a) : validDate(a, b, c) || validDate(b, a, c);
+                    if (valid)
+                        relax.at(Pattern.DATE, end - from, dateBits(year, true));
+                }
+            }
+        }
+    }
+
+    private static boolean validDate(int day, int month, int year) {
+        year = expandYear(year);
+        return month >= 1 && month <= 12 && day >= 1 && day <= 31 && year >= 1900 && year <= 2099;
+    }
+
+    private static int expandYear(int year) {
+        if (year >= 100)
+            return year;
+        return year > 50 ? 1900 + year : 2000 + year;
+    }
+
+    private static double dateBits(int year, boolean separator) {
+        return log2(yearSpace(expandYear(year)) * 365.0 * (separator ? 4 : 1));
+    }
+
+    private static int yearSpace(int year) {
+        return Math.max(Math.abs(year - REFERENCE_YEAR), MIN_YEAR_SPACE);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean allDigits(CharSequence s, int from, int to) {
+        for (int k = from; k < to; k++) {
+            if (!isDigit(s.charAt(k)))
+                return false;
+        }
+        return true;
+    }
+
+    private static int number(CharSequence s, int start, int length) {
+        int v = 0;
+        for (int k = 0; k < length; k++)
+            v = v * 10 + (s.charAt(start + k) - '0');
+        return v;
+    }
+
+    // Same pool sizes as CharsetPolicy, plus a wide pool for anything outside printable ASCII
+    private static int classCardinality(CharSequence s) {
+        boolean lower = false, upper = false, digit = false, symbol = false, other = false;
+        for (int k = 0; k < s.length(); k++) {
+            char c = s.charAt(k);
+            if (c >= 'a' && c <= 'z')
+                lower = true;
+            else if (c >= 'A' && c <= 'Z')
+                upper = true;
+            else if (c >= '0' && c <= '9')
+                digit = true;
+            else if (CharsetPolicy.SYMBOL_CHARS.indexOf(c) >= 0)
+                symbol = true;
+            else
+                other = true;
+        }
+        int cardinality = (lower ? CharsetPolicy.LOWER_CHARS.length() : 0)
+                + (upper ? CharsetPolicy.UPPER_CHARS.length() : 0)
+                + (digit ? CharsetPolicy.DIGIT_CHARS.length() : 0)
+                + (symbol ? CharsetPolicy.SYMBOL_CHARS.length() : 0)
+                + (other ? 100 : 0);
+        return Math.max(10, cardinality);
+    }
+
+    private static double binomial(int n, int k) {
+        double r = 1;
+        for (int j = 1; j <= k; j++)
+            r = r * (n - k + j) / j;
+        return r;
+    }
+
+    private static double log2(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+
+    private static List<String> loadDefaultWords() {
+        InputStream in = StrengthEstimator.class.getResourceAsStream(DEFAULT_WORDS);
+        if (in == null)
+            return List.of();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return readWords(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> readWords(BufferedReader in) throws IOException {
+        List<String> words = new ArrayList<>();
+        for (String line; (line = in.readLine()) != null;) {
+            line = line.strip();
+            if (!line.isEmpty() && line.charAt(0) != '#')
+                words.add(line.toLowerCase());
+        }
+        return words;
+    }
+
+    // Two cheapest covers per prefix length: ending in a pattern match, or in a brute-force run
+    private static final class Dp {
+        final double[] match;
+        final double[] brute;
+        final int[] matchStart;
+        final Pattern[] matchPattern;
+        final double[] matchBits;
+        final boolean[] bruteExtends;
+
+        Dp(int n, boolean traced) {
+            match = new double[n + 1];
+            brute = new double[n + 1];
+            java.util.Arrays.fill(match, Double.POSITIVE_INFINITY);
+            java.util.Arrays.fill(brute, Double.POSITIVE_INFINITY);
+            match[0] = 0;
+            matchStart = traced ? new int[n + 1] : null;
+            matchPattern = traced ? new Pattern[n + 1] : null;
+            matchBits = traced ? new double[n + 1] : null;
+            bruteExtends = traced ? new boolean[n + 1] : null;
+        }
+
+        double best(int i) {
+            return Math.min(match[i], brute[i]);
+        }
+
+        void setBrute(int i, double bits, boolean extendsRun) {
+            brute[i] = bits;
+            if (bruteExtends != null)
+                bruteExtends[i] = extendsRun;
+        }
+
+        void relax(int start, int end, Pattern pattern, double bits, double base) {
+            double total = base + bits + (start > 0 ? SEGMENT_BITS : 0);
+            if (total >= match[end])
+                return;
+            match[end] = total;
+            if (matchStart != null) {
+                matchStart[end] = start;
+                matchPattern[end] = pattern;
+                matchBits[end] = bits;
+            }
+        }
+
+        void trace(List<Match> out, int from, double bruteBits) {
+            int pos = match.length - 1;
+            boolean inMatch = match[pos] <= brute[pos];
+            while (pos > 0) {
+                if (inMatch) {
+                    int start = matchStart[pos];
+                    out.add(new Match(matchPattern[pos], from + start, from + pos, matchBits[pos]));
+                    inMatch = match[start] <= brute[start];
+                    pos = start;
+                } else {
+                    int end = pos;
+                    while (bruteExtends[pos])
+                        pos--;
+                    pos--;
+                    out.add(new Match(Pattern.BRUTEFORCE, from + pos, from + end, (end - pos) * bruteBits));
+                    inMatch = true;
+                }
+            }
+            Collections.reverse(out);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.francismul.passwordgenerator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guarantees no password is accepted twice.
+ * Keeps 64-bit fingerprints in an off-heap, lock-free open-addressing table split into
+ * direct-buffer segments, so hundreds of millions of entries live outside the Java heap.
+ * Inserts always go through the table, because only its compare-and-set decides races
+ * between threads, so generation uses no Bloom filter. Callers that also make many read-only
+ * {@link #contains} lookups can opt into a blocked Bloom filter that answers never-seen
+ * passwords with a single memory access. A fingerprint clash between two different passwords
+ * only causes an extra retry, never a duplicate.
+ */
+public final class UniqueFilter implements PasswordFilter {
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int SEGMENT_SHIFT = 27;
+    private static final int SEGMENT_SLOTS = 1 << SEGMENT_SHIFT;
+    private static final int BLOOM_HASHES = 6;
+    private static final double MAX_LOAD = 0.7;
+    // Further than this from the limit, the entry count is re-summed for about one insert in 1024
+    private static final long EXACT_CHECK_HEADROOM = 1 << 16;
+    private static final int SAMPLE_SHIFT = 54;
+
+    private final ByteBuffer[] table;
+    private final long slotMask;
+    private final long maxEntries;
+    private final ByteBuffer[] bloom;
+    private final long bloomWordMask;
+    private final long seed = Double.doubleToLongBits(Math.random()) ^ System.nanoTime();
+
+    private final LongAdder entries = new LongAdder();
+    private volatile long checkedEntries; // entries.sum() at the last capacity check
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder bloomNegatives = new LongAdder();
+    private final LongAdder bloomFalsePositives = new LongAdder();
+
+    public record Stats(long entries, long attempts, long duplicates, long bloomNegatives, long bloomFalsePositives) {
+        /** Share of candidates that had to be regenerated. */
+        public double retryRate() {
+            return attempts == 0 ? 0 : (double) duplicates / attempts;
+        }
+    }
+
+    /**
+     * Filter without a Bloom prefilter, which only {@link #contains} would use.
+     * @param expectedEntries how many passwords will be accepted; the table holds up to this
+     *                        many before refusing further inserts
+     */
+    public UniqueFilter(long expectedEntries) {
+        this(expectedEntries, 0);
+    }
+
+    /**
+     * @param bloomBitsPerEntry Bloom filter size per entry for {@link #contains}; 0 disables it
+     */
+    public UniqueFilter(long expectedEntries, int bloomBitsPerEntry) {
+        if (expectedEntries < 1)
+            throw new IllegalArgumentException("Expected entries must be >= 1");
+        long slots = Long.highestOneBit((long) Math.ceil(expectedEntries / MAX_LOAD) - 1) << 1;
+        this.slotMask = Math.max(2, slots) - 1;
+        this.maxEntries = (long) ((slotMask + 1) * MAX_LOAD);
+        this.table = allocate(slotMask + 1);
+        if (bloomBitsPerEntry > 0) {
+            long words = Long.highestOneBit(Math.max(1, expectedEntries * bloomBitsPerEntry / 64) - 1) << 1;
+            this.bloomWordMask = Math.max(1, words) - 1;
+            this.bloom = allocate(bloomWordMask + 1);
+        } else {
+            this.bloomWordMask = 0;
+            this.bloom = null;
+        }
+    }
+
+    private static ByteBuffer[] allocate(long longs) {
+        int segments = (int) ((longs + SEGMENT_SLOTS - 1) >>> SEGMENT_SHIFT);
+        ByteBuffer[] buffers = new ByteBuffer[segments];
+        for (int i = 0; i < segments; i++) {
+            long n = Math.min(SEGMENT_SLOTS, longs - ((long) i << SEGMENT_SHIFT));
+            buffers[i] = ByteBuffer.allocateDirect((int) (n * 8)).order(ByteOrder.nativeOrder());
+        }
+        return buffers;
+    }
+
+    @Override
+    public boolean accept(char[] buf, int offset, int length) {
+        attempts.increment();
+        long fp = fingerprint(buf, offset, length);
+        if (!insert(fp)) {
+            duplicates.increment();
+            return false;
+        }
+        if (bloom != null)
+            bloomAdd(fp);
+        return true;
+    }
+
+    public boolean contains(CharSequence password) {
+        char[] buf = password.toString().toCharArray();
+        return contains(buf, 0, buf.length);
+    }
+
+    public boolean contains(char[] buf, int offset, int length) {
+        long fp = fingerprint(buf, offset, length);
+        if (bloom != null && !bloomMightContain(fp)) {
+            bloomNegatives.increment();
+            return false;
+        }
+        boolean found = lookup(fp);
+        if (bloom != null && !found)
+            bloomFalsePositives.increment();
+        return found;
+    }
+
+    public Stats stats() {
+        return new Stats(entries.sum(), attempts.sum(), duplicates.sum(), bloomNegatives.sum(),
+                bloomFalsePositives.sum());
+    }
+
+    /** Fingerprints this filter can hold before it refuses new entries. */
+    public long capacity() {
+        return maxEntries;
+    }
+
+    private boolean insert(long fp) {
+        if (!hasRoom(fp))
+            throw new IllegalStateException("UniqueFilter is full (" + maxEntries + " entries)");
+        for (long slot = fp & slotMask;; slot = (slot + 1) & slotMask) {
+            ByteBuffer seg = table[(int) (slot >>> SEGMENT_SHIFT)];
+            int pos = (int) (slot & (SEGMENT_SLOTS - 1)) << 3;
+            long v = (long) LONGS.getVolatile(seg, pos);
+            if (v == 0) {
+                v = (long) LONGS.compareAndExchange(seg, pos, 0L, fp);
+                if (v == 0) {
+                    entries.increment();
+                    return true;
+                }
+            }
+            if (v == fp)
+                return false;
+        }
+    }
+
+    // entries.sum() walks every cell of the adder, too slow for each insert of a bulk run. Far from
+    // the limit it is re-read only when the fingerprint's top bits are zero; missing 65536 inserts in
+    // a row has odds of e^-64, and the table keeps 30% of its slots free besides. Near the limit
+    // every insert sums exactly.
+    private boolean hasRoom(long fp) {
+        if (maxEntries - checkedEntries > EXACT_CHECK_HEADROOM && fp >>> SAMPLE_SHIFT != 0)
+            return true;
+        long n = entries.sum();
+        checkedEntries = n;
+        return n < maxEntries;
+    }
+
+    private boolean lookup(long fp) {
+        for (long slot = fp & slotMask;; slot = (slot + 1) & slotMask) {
+            ByteBuffer seg = table[(int) (slot >>> SEGMENT_SHIFT)];
+            long v = (long) LONGS.getVolatile(seg, (int) (slot & (SEGMENT_SLOTS - 1)) << 3);
+            if (v == fp)
+                return true;
+            if (v == 0)
+                return false;
+        }
+    }
+
+    // Blocked Bloom filter: all probe bits for a key sit in one 64-bit word
+    private long bloomBits(long fp) {
+        long h = Long.rotateLeft(fp, 32) * 0x9E3779B97F4A7C15L;
+        long bits = 0;
+        for (int i = 0; i < BLOOM_HASHES; i++)
+            bits |= 1L << ((h >>> (i * 6)) & 63);
+        return bits;
+    }
+
+    private void bloomAdd(long fp) {
+        long word = (fp >>> 7) & bloomWordMask;
+        LONGS.getAndBitwiseOr(bloom[(int) (word >>> SEGMENT_SHIFT)], (int) (word & (SEGMENT_SLOTS - 1)) << 3,
+                bloomBits(fp));
+    }
+
+    private boolean bloomMightContain(long fp) {
+        long word = (fp >>> 7) & bloomWordMask;
+        long bits = bloomBits(fp);
+        long v = (long) LONGS.getVolatile(bloom[(int) (word >>> SEGMENT_SHIFT)], (int) (word & (SEGMENT_SLOTS - 1)) << 3);
+        return (v & bits) == bits;
+    }
+
+    // 64-bit multiply-mix hash; 0 is reserved for empty slots
+    private long fingerprint(char[] buf, int offset, int length) {
+        long h = seed ^ (length * 0x9E3779B97F4A7C15L);
+        int i = offset;
+        int end = offset + length;
+        for (; i + 4 <= end; i += 4) {
+            long k = buf[i] | ((long) buf[i + 1] << 16) | ((long) buf[i + 2] << 32) | ((long) buf[i + 3] << 48);
+            h = mix(h ^ mix(k));
+        }
+        for (; i < end; i++)
+            h = mix(h ^ buf[i]);
+        return h == 0 ? 1 : h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
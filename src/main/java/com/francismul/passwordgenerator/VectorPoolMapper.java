@@ -0,0 +1,63 @@
+package com.francismul.passwordgenerator;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link PoolMapper} on the incubating Vector API; only reference it through
+ * {@link PoolMapper#vector}, which checks the module is present.
+ * A pool is a few runs of consecutive ASCII (a-z, A-Z, 0-9 and four symbol runs), so a
+ * character is its index plus a per-run offset: one compare and masked add per run
+ * replaces the table lookup. Accepted lanes are then packed down in place by walking the
+ * mask bits; {@code compress} would do that in one instruction, but only AVX-512 VBMI2 has
+ * it for bytes, and on AVX2 it is slower than the scalar loop.
+ */
+final class VectorPoolMapper extends PoolMapper {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    private final byte base;
+    private final byte[] runStarts; // index where each run after the first begins
+    private final byte[] runDeltas; // offset change at that run
+
+    VectorPoolMapper(CharsetPolicy policy) {
+        super(policy);
+        char[] pool = policy.pool;
+        int runs = 0;
+        for (int i = 1; i < pool.length; i++) {
+            if (pool[i] != pool[i - 1] + 1)
+                runs++;
+        }
+        this.base = (byte) pool[0];
+        this.runStarts = new byte[runs];
+        this.runDeltas = new byte[runs];
+        for (int i = 1, k = 0; i < pool.length; i++) {
+            if (pool[i] != pool[i - 1] + 1) {
+                runStarts[k] = (byte) i;
+                runDeltas[k] = (byte) (pool[i] - pool[i - 1] - 1);
+                k++;
+            }
+        }
+    }
+
+    @Override
+    int map(byte[] random, int from, int to, byte[] dest, int destPos) {
+        int n = destPos;
+        int i = from;
+        // Each store writes a full vector, but never past as many bytes as were read, so dest has room
+        for (int end = from + SPECIES.loopBound(to - from); i < end; i += SPECIES.length()) {
+            ByteVector index = ByteVector.fromArray(SPECIES, random, i).and((byte) indexMask);
+            VectorMask<Byte> accept = index.compare(VectorOperators.LT, (byte) poolSize);
+            ByteVector chars = index.add(base);
+            for (int k = 0; k < runStarts.length; k++)
+                chars = chars.add(runDeltas[k], index.compare(VectorOperators.GE, runStarts[k]));
+            chars.intoArray(dest, n);
+            // The j-th accepted lane is never left of lane j, so packing left in place is safe
+            int lane0 = n;
+            for (long bits = accept.toLong(); bits != 0; bits &= bits - 1)
+                dest[n++] = dest[lane0 + Long.numberOfTrailingZeros(bits)];
+        }
+        return n - destPos + super.map(random, i, to, dest, n);
+    }
+}
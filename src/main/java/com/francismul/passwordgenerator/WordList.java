@@ -0,0 +1,103 @@
+package com.francismul.passwordgenerator;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Memory-mapped word list for passphrases.
+ * The file stays in the page cache; the heap only holds one int offset per word,
+ * so a multi-million-word list costs a few MB regardless of word length.
+ * Accepts one word per line or EFF-style "dice-roll&lt;TAB&gt;word" lines; words should be unique.
+ */
+public final class WordList implements AutoCloseable {
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final int[] starts;
+    private final double log2Size;
+
+    private WordList(FileChannel channel, MappedByteBuffer data, int[] starts) {
+        this.channel = channel;
+        this.data = data;
+        this.starts = starts;
+        this.log2Size = Math.log(starts.length) / Math.log(2);
+    }
+
+    public static WordList open(Path path) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("Word lists over 2 GB are not supported: " + path);
+            MappedByteBuffer data = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int[] starts = index(data);
+            if (starts.length < 2)
+                throw new IOException("Word list needs at least two words: " + path);
+            return new WordList(ch, data, starts);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    // One pass over the mapping: record where each non-empty line's word begins
+    private static int[] index(MappedByteBuffer data) {
+        int[] starts = new int[1024];
+        int count = 0;
+        int limit = data.limit();
+        int lineStart = 0;
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && data.get(i) != '\n')
+                continue;
+            int start = lineStart;
+            for (int j = lineStart; j < i; j++) {
+                if (data.get(j) == '\t')
+                    start = j + 1;
+            }
+            if (wordEnd(data, start) > start) {
+                if (count == starts.length)
+                    starts = Arrays.copyOf(starts, count * 2);
+                starts[count++] = start;
+            }
+            lineStart = i + 1;
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static int wordEnd(MappedByteBuffer data, int start) {
+        int end = start;
+        int limit = data.limit();
+        while (end < limit) {
+            byte b = data.get(end);
+            if (b == '\n' || b == '\r')
+                break;
+            end++;
+        }
+        return end;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    /** Entropy contributed by one uniformly chosen word. */
+    public double log2Size() {
+        return log2Size;
+    }
+
+    public String get(int index) {
+        int start = starts[index];
+        byte[] bytes = new byte[wordEnd(data, start) - start];
+        data.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,105 @@
+package com.francismul.passwordgenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Lookups against a small generated HIBP-style file: single checks, the batched audit
+ * (whose hash order must span the whole unsigned range) and the filter view.
+ */
+class BreachedHashFileTest {
+    private static final int BREACHED = 5_000;
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void sha1FileFindsExactlyTheBreachedPasswords() throws Exception {
+        checkAlgorithm(BreachedHashFile.Algorithm.SHA1);
+    }
+
+    @Test
+    void ntlmFileFindsExactlyTheBreachedPasswords() throws Exception {
+        checkAlgorithm(BreachedHashFile.Algorithm.NTLM);
+    }
+
+    @Test
+    void knownHashesMatchTheHibpDownloads() throws Exception {
+        Path text = tmp.resolve("known.txt");
+        Files.writeString(text, "5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8:9545824\n");
+        Path bin = tmp.resolve("known.bin");
+        BreachedHashFile.convert(text, bin, BreachedHashFile.Algorithm.SHA1);
+        try (BreachedHashFile file = BreachedHashFile.open(bin, BreachedHashFile.Algorithm.SHA1)) {
+            assertTrue(file.contains("password"));
+            assertFalse(file.contains("Password"));
+        }
+        Files.writeString(text, "8846F7EAEE8FB117AD06BDD830B7586C:9545824\n");
+        BreachedHashFile.convert(text, bin, BreachedHashFile.Algorithm.NTLM);
+        try (BreachedHashFile file = BreachedHashFile.open(bin, BreachedHashFile.Algorithm.NTLM)) {
+            assertTrue(file.contains("password"));
+        }
+    }
+
+    @Test
+    void convertRejectsUnsortedInput() throws IOException {
+        Path text = tmp.resolve("unsorted.txt");
+        Files.writeString(text, "F".repeat(40) + ":1\n" + "0".repeat(40) + ":1\n");
+        assertThrows(IOException.class,
+                () -> BreachedHashFile.convert(text, tmp.resolve("out.bin"), BreachedHashFile.Algorithm.SHA1));
+    }
+
+    private void checkAlgorithm(BreachedHashFile.Algorithm algorithm) throws Exception {
+        List<String> breached = new ArrayList<>();
+        List<String> candidates = new ArrayList<>();
+        for (int i = 0; i < BREACHED; i++) {
+            breached.add("leaked-" + i);
+            candidates.add("leaked-" + i);
+            candidates.add("fresh-" + i);
+        }
+        List<String> lines = new ArrayList<>();
+        for (String pwd : breached)
+            lines.add(HexFormat.of().formatHex(hash(algorithm, pwd)).toUpperCase(Locale.ROOT) + ":1");
+        // Upper-case hex sorts like the unsigned bytes it encodes
+        lines.sort(null);
+        Path text = tmp.resolve(algorithm + ".txt");
+        Files.write(text, lines, StandardCharsets.US_ASCII);
+        Path bin = tmp.resolve(algorithm + ".bin");
+        assertEquals(BREACHED, BreachedHashFile.convert(text, bin, algorithm));
+
+        try (BreachedHashFile file = BreachedHashFile.open(bin, algorithm)) {
+            assertEquals(BREACHED, file.count());
+            BitSet hits = file.check(candidates);
+            for (int i = 0; i < candidates.size(); i++) {
+                boolean leaked = candidates.get(i).startsWith("leaked-");
+                assertEquals(leaked, hits.get(i), candidates.get(i));
+                assertEquals(leaked, file.contains(candidates.get(i)), candidates.get(i));
+                assertEquals(!leaked, file.accept(candidates.get(i).toCharArray(), 0, candidates.get(i).length()));
+            }
+        }
+    }
+
+    private static byte[] hash(BreachedHashFile.Algorithm algorithm, String pwd) throws Exception {
+        if (algorithm == BreachedHashFile.Algorithm.SHA1)
+            return MessageDigest.getInstance("SHA-1").digest(pwd.getBytes(StandardCharsets.UTF_8));
+        byte[] utf16 = pwd.getBytes(StandardCharsets.UTF_16LE);
+        byte[] out = new byte[16];
+        Md4.digest(utf16, utf16.length, out);
+        return out;
+    }
+}
@@ -0,0 +1,54 @@
+package com.francismul.passwordgenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Time to the first password from a cold JVM, through the headless launcher. The child JVM
+ * logs every class it loads, so the test also proves AWT and Swing stay unloaded.
+ */
+class ConsoleAppTest {
+    // Generous so slow CI machines pass; the launcher measures well under a second
+    private static final long MAX_STARTUP_MILLIS = 10_000;
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void firstPasswordWithoutLoadingAwtOrSwing() throws Exception {
+        Path classLog = tmp.resolve("classes.log");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classes = Paths.get(ConsoleApp.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .toString();
+        // Same records as -verbose:class, but written to a file so stdout holds only the password
+        ProcessBuilder builder = new ProcessBuilder(java, "-Xlog:class+load=info:file=" + classLog,
+                "-cp", classes, ConsoleApp.class.getName(), "--count", "1")
+                .redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        long start = System.nanoTime();
+        Process child = builder.start();
+        byte[] out = child.getInputStream().readAllBytes();
+        assertTrue(child.waitFor(30, TimeUnit.SECONDS), "ConsoleApp did not exit");
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("ConsoleApp --count 1: " + millis + " ms to first password");
+
+        assertEquals(0, child.exitValue());
+        String stdout = new String(out, StandardCharsets.US_ASCII);
+        assertTrue(stdout.matches("\\S{16}\n"), "unexpected output: " + stdout);
+        List<String> loaded = Files.readAllLines(classLog);
+        assertTrue(loaded.size() > 100, "class log looks empty");
+        for (String line : loaded)
+            assertTrue(!line.contains(" java.awt.") && !line.contains(" javax.swing."), "loaded " + line);
+        assertTrue(millis < MAX_STARTUP_MILLIS, "startup took " + millis + " ms");
+    }
+}
@@ -0,0 +1,112 @@
+package com.francismul.passwordgenerator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round trips across chunk boundaries, including the empty final chunk after an exact
+ * multiple, and rejection of every way a file can be altered: flipped bytes, dropped or
+ * truncated chunks, trailing data and a header asking for unbounded key derivation.
+ */
+class EncryptedExportTest {
+    private static final int CHUNK = 64;
+    private static final int RECORD = Integer.BYTES + CHUNK + 16; // length prefix, ciphertext, tag
+    private static final int HEADER = 36;
+    private static final int ITERATIONS = 1_000; // fast; the format does not depend on it
+    private static final char[] PASSPHRASE = "correct horse".toCharArray();
+
+    @Test
+    void roundTripsAcrossChunkBoundaries() throws IOException {
+        for (int size : new int[] { 0, 1, CHUNK - 1, CHUNK, CHUNK + 1, 10 * CHUNK, 10 * CHUNK + 7 }) {
+            byte[] plain = plain(size);
+            assertArrayEquals(plain, decrypt(encrypt(plain, false)), "size " + size);
+            assertArrayEquals(plain, decrypt(encrypt(plain, true)), "size " + size + " via channel");
+        }
+    }
+
+    @Test
+    void wrongPassphraseFails() throws IOException {
+        byte[] file = encrypt(plain(100), false);
+        assertThrows(IOException.class,
+                () -> EncryptedExport.open(new ByteArrayInputStream(file), "wrong".toCharArray()).readAllBytes());
+    }
+
+    @Test
+    void flippedBytesFail() throws IOException {
+        byte[] file = encrypt(plain(3 * CHUNK), false);
+        // Header (authenticated as associated data), first chunk, a middle chunk and the last tag
+        for (int at : new int[] { 20, HEADER + 10, HEADER + RECORD + 30, file.length - 1 }) {
+            byte[] bad = file.clone();
+            bad[at] ^= 1;
+            assertThrows(IOException.class, () -> decrypt(bad), "flipped byte " + at);
+        }
+    }
+
+    @Test
+    void truncatedOrReorderedFilesFail() throws IOException {
+        byte[] file = encrypt(plain(3 * CHUNK + 5), false);
+        // Cut at a chunk boundary: the last full chunk is not flagged final
+        assertThrows(EOFException.class, () -> decrypt(Arrays.copyOf(file, HEADER + 3 * RECORD)));
+        // Cut inside a chunk
+        assertThrows(EOFException.class, () -> decrypt(Arrays.copyOf(file, file.length - 3)));
+        // Middle chunk dropped: the next one no longer matches its index
+        byte[] dropped = new byte[file.length - RECORD];
+        System.arraycopy(file, 0, dropped, 0, HEADER + RECORD);
+        System.arraycopy(file, HEADER + 2 * RECORD, dropped, HEADER + RECORD, file.length - HEADER - 2 * RECORD);
+        assertThrows(IOException.class, () -> decrypt(dropped));
+        // Two chunks swapped
+        byte[] swapped = file.clone();
+        System.arraycopy(file, HEADER, swapped, HEADER + RECORD, RECORD);
+        System.arraycopy(file, HEADER + RECORD, swapped, HEADER, RECORD);
+        assertThrows(IOException.class, () -> decrypt(swapped));
+    }
+
+    @Test
+    void trailingDataFails() throws IOException {
+        byte[] file = encrypt(plain(CHUNK / 2), false);
+        assertThrows(IOException.class, () -> decrypt(Arrays.copyOf(file, file.length + 1)));
+    }
+
+    @Test
+    void hugeIterationCountIsRejectedBeforeKeyDerivation() throws IOException {
+        byte[] file = encrypt(plain(10), false);
+        ByteBuffer.wrap(file).putInt(Long.BYTES + Integer.BYTES, Integer.MAX_VALUE);
+        assertTimeout(Duration.ofSeconds(5), () -> assertThrows(IOException.class,
+                () -> EncryptedExport.open(new ByteArrayInputStream(file), PASSPHRASE)));
+        assertThrows(IllegalArgumentException.class, () -> EncryptedExport.create(new ByteArrayOutputStream(),
+                PASSPHRASE, CHUNK, 1, EncryptedExport.MAX_ITERATIONS + 1));
+    }
+
+    private static byte[] plain(int size) {
+        byte[] b = new byte[size];
+        for (int i = 0; i < size; i++)
+            b[i] = (byte) (i * 31 + 7);
+        return b;
+    }
+
+    private static byte[] encrypt(byte[] plain, boolean channel) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (EncryptedExport.Output export = EncryptedExport.create(out, PASSPHRASE, CHUNK, 2, ITERATIONS)) {
+            if (channel)
+                export.write(ByteBuffer.wrap(plain));
+            else
+                export.write(plain);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decrypt(byte[] file) throws IOException {
+        return EncryptedExport.open(new ByteArrayInputStream(file), PASSPHRASE).readAllBytes();
+    }
+}
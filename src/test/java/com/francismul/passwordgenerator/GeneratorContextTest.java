@@ -0,0 +1,56 @@
+package com.francismul.passwordgenerator;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Steady-state generation into caller buffers must not allocate. The seeded source keeps the
+ * random source itself allocation-free, so any bytes counted come from the generator.
+ */
+class GeneratorContextTest {
+    private static final int WARMUP = 200_000;
+    private static final int CALLS = 100_000;
+    // Slack for the counter calls themselves; one allocation per call would be megabytes
+    private static final long TOLERANCE_BYTES = 1024;
+
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final CharsetPolicy policy = CharsetPolicy.of(15);
+
+    @Test
+    void generateIntoCharArrayDoesNotAllocate() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        GeneratorContext context = new GeneratorContext(RandomSource.seeded(1));
+        char[] dest = new char[32];
+        for (int i = 0; i < WARMUP; i++)
+            context.generate(32, policy, dest, 0);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < CALLS; i++)
+            context.generate(32, policy, dest, 0);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < TOLERANCE_BYTES, allocated + " bytes allocated over " + CALLS + " calls");
+    }
+
+    @Test
+    void generateBatchIntoCharArrayDoesNotAllocate() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        GeneratorContext context = new GeneratorContext(RandomSource.seeded(2));
+        char[] dest = new char[100 * 17];
+        for (int i = 0; i < WARMUP / 100; i++)
+            context.generateBatch(100, 16, policy, dest, 0, true);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < CALLS / 100; i++)
+            context.generateBatch(100, 16, policy, dest, 0, true);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < TOLERANCE_BYTES, allocated + " bytes allocated over " + CALLS / 100 + " batches");
+    }
+}
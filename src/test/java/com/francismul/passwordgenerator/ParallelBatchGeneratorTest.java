@@ -0,0 +1,63 @@
+package com.francismul.passwordgenerator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Secure sources are split once per worker, not once per chunk, while seeded output stays
+ * identical for any parallelism.
+ */
+class ParallelBatchGeneratorTest {
+    private static final int CHUNK = 256;
+    private static final int COUNT = 100 * CHUNK;
+
+    private final CharsetPolicy policy = CharsetPolicy.of(15);
+
+    @Test
+    void secureSourceIsSplitOncePerWorker() {
+        AtomicInteger splits = new AtomicInteger();
+        RandomSource shared = RandomSource.of(new SecureRandom());
+        RandomSource counting = new RandomSource() {
+            @Override
+            public void nextBytes(byte[] bytes) {
+                shared.nextBytes(bytes);
+            }
+
+            @Override
+            public boolean isSecure() {
+                return true;
+            }
+
+            @Override
+            public RandomSource split(long streamIndex) {
+                splits.incrementAndGet();
+                return shared;
+            }
+        };
+        int parallelism = 4;
+        try (ParallelBatchGenerator generator = new ParallelBatchGenerator(parallelism, CHUNK, counting)) {
+            generator.generate(COUNT, 16, policy, new char[COUNT * 17], 0, true);
+            generator.generate(COUNT, 16, policy, new char[COUNT * 17], 0, true);
+        }
+        assertTrue(splits.get() <= parallelism, splits + " splits for " + 2 * COUNT / CHUNK + " chunks");
+    }
+
+    @Test
+    void seededOutputDoesNotDependOnParallelism() {
+        assertArrayEquals(generate(1), generate(4));
+    }
+
+    private char[] generate(int parallelism) {
+        char[] out = new char[COUNT * 17];
+        try (ParallelBatchGenerator generator = new ParallelBatchGenerator(parallelism, CHUNK,
+                RandomSource.seeded(3))) {
+            generator.generate(COUNT, 16, policy, out, 0, true);
+        }
+        return out;
+    }
+}
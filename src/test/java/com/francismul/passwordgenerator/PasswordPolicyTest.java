@@ -0,0 +1,102 @@
+package com.francismul.passwordgenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Built passwords always comply, the planning table counts what inclusion-exclusion counts,
+ * infeasible rules are rejected up front, and without local rules every compliant password
+ * is equally likely.
+ */
+class PasswordPolicyTest {
+    private static final int SAMPLES = 2_000;
+
+    private final CharsetPolicy all = CharsetPolicy.of(15);
+
+    @Test
+    void builtPasswordsAlwaysComply() {
+        PasswordPolicy[] policies = {
+                PasswordPolicy.of(4, all),
+                PasswordPolicy.of(12, all).withMinimum(CharsetPolicy.DIGITS, 3).withMinimum(CharsetPolicy.SYMBOLS, 2)
+                        .withFirst(CharsetPolicy.LOWER | CharsetPolicy.UPPER).withLast(CharsetPolicy.DIGITS),
+                PasswordPolicy.of(16, all).withMaxRepeats(1).withMaxSequence(2)
+                        .withMaxKeyboardWalk(2, KeyboardLayout.QWERTY, KeyboardLayout.KEYPAD),
+                PasswordPolicy.of(8, CharsetPolicy.of(CharsetPolicy.DIGITS)).withMaxRepeats(1).withMaxSequence(2),
+        };
+        GeneratorContext context = new GeneratorContext(RandomSource.seeded(7));
+        for (PasswordPolicy policy : policies) {
+            for (int i = 0; i < SAMPLES; i++) {
+                String pwd = context.generate(policy);
+                assertTrue(policy.accept(pwd), policy + " built " + pwd);
+            }
+        }
+    }
+
+    @Test
+    void defaultUpperBoundMatchesInclusionExclusion() {
+        int[] masks = { CharsetPolicy.LOWER | CharsetPolicy.DIGITS, 15, CharsetPolicy.UPPER | CharsetPolicy.SYMBOLS };
+        for (int mask : masks) {
+            CharsetPolicy charset = CharsetPolicy.of(mask);
+            for (int length : new int[] { 4, 9, 20 }) {
+                double expected = Math.log(atLeastOneOfEach(charset, length)) / Math.log(2);
+                assertEquals(expected, PasswordPolicy.of(length, charset).upperBoundBits(), 1e-9,
+                        charset + " length " + length);
+            }
+        }
+    }
+
+    @Test
+    void infeasibleRulesAreRejected() {
+        // Minimums add up to more than the length
+        assertThrows(IllegalArgumentException.class,
+                () -> PasswordPolicy.of(6, all).withMinimum(CharsetPolicy.DIGITS, 4));
+        // Four classes, but the first and last must both be digits: two middle slots for three classes
+        assertThrows(IllegalArgumentException.class,
+                () -> PasswordPolicy.of(4, all).withFirst(CharsetPolicy.DIGITS).withLast(CharsetPolicy.DIGITS));
+        // First class outside the charset
+        assertThrows(IllegalArgumentException.class,
+                () -> PasswordPolicy.of(8, CharsetPolicy.of(CharsetPolicy.LOWER)).withFirst(CharsetPolicy.DIGITS));
+        // Minimum for a class that is not selected
+        assertThrows(IllegalArgumentException.class,
+                () -> PasswordPolicy.of(8, CharsetPolicy.of(CharsetPolicy.LOWER)).withMinimum(CharsetPolicy.UPPER, 1));
+        // Table bound, checked before it can overflow
+        assertThrows(IllegalArgumentException.class,
+                () -> PasswordPolicy.of(Integer.MAX_VALUE, all).withMinimum(CharsetPolicy.LOWER, 1 << 29)
+                        .withMinimum(CharsetPolicy.UPPER, 1 << 29).withMinimum(CharsetPolicy.DIGITS, 1 << 29));
+    }
+
+    @Test
+    void entropyEqualsUpperBoundWithoutLocalRules() {
+        PasswordPolicy[] policies = {
+                PasswordPolicy.of(10, all),
+                PasswordPolicy.of(10, all).withMinimum(CharsetPolicy.SYMBOLS, 3).withFirst(CharsetPolicy.UPPER)
+                        .withLast(CharsetPolicy.DIGITS | CharsetPolicy.SYMBOLS),
+        };
+        GeneratorContext context = new GeneratorContext(RandomSource.seeded(11));
+        for (PasswordPolicy policy : policies) {
+            for (int i = 0; i < 200; i++) {
+                String pwd = context.generate(policy);
+                assertEquals(policy.upperBoundBits(), policy.entropyBits(pwd), 1e-9, policy + " " + pwd);
+            }
+        }
+    }
+
+    // Strings of the given length with at least one character from every selected class
+    private static double atLeastOneOfEach(CharsetPolicy charset, int length) {
+        int classes = charset.classCount();
+        double total = 0;
+        for (int excluded = 0; excluded < 1 << classes; excluded++) {
+            int pool = 0;
+            for (int k = 0; k < classes; k++) {
+                if ((excluded & (1 << k)) == 0)
+                    pool += charset.classLength(k);
+            }
+            double term = Math.pow(pool, length);
+            total += Integer.bitCount(excluded) % 2 == 0 ? term : -term;
+        }
+        return total;
+    }
+}
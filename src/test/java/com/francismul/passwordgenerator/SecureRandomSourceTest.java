@@ -0,0 +1,116 @@
+package com.francismul.passwordgenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Striped and per-thread modes must hand threads separate SecureRandom instances, and
+ * multi-threaded generation on them must scale instead of queueing on one lock.
+ */
+class SecureRandomSourceTest {
+    private static final int STRIPES = 4;
+    private static final long MEASURE_NANOS = 300_000_000L;
+
+    @AfterEach
+    void restoreSharedRandom() {
+        PasswordGenerator.useSharedRandom();
+    }
+
+    @Test
+    void stripedModeSpreadsThreadsOverDistinctInstances() {
+        SecureRandomSource source = SecureRandomSource.striped(RngAlgorithm.DRBG, STRIPES);
+        Set<SecureRandom> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < STRIPES; i++)
+            seen.add(source.acquire());
+        assertEquals(STRIPES, seen.size());
+        // Wraps around once every stripe is taken
+        assertTrue(seen.contains(source.acquire()));
+    }
+
+    @Test
+    void perThreadModeCreatesAnInstancePerStream() {
+        SecureRandomSource source = SecureRandomSource.perThread(RngAlgorithm.DRBG);
+        Set<SecureRandom> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < STRIPES; i++)
+            seen.add(source.acquire());
+        assertEquals(STRIPES, seen.size());
+    }
+
+    @Test
+    void sharedModeKeepsOneInstance() {
+        SecureRandom random = new SecureRandom();
+        SecureRandomSource source = SecureRandomSource.shared(random);
+        assertSame(random, source.acquire());
+        assertSame(random, source.acquire());
+    }
+
+    /**
+     * Throughput at 1 and N threads, shared versus striped. Striped N-thread throughput must
+     * reach half of linear scaling over the cores actually available. A single-core machine can
+     * show no speed-up, so there N threads only have to keep half the single-thread rate.
+     */
+    @Test
+    void stripedThroughputScalesWithThreads() throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int threads = Math.max(2, Math.min(cores, 8));
+
+        PasswordGenerator.useSharedRandom();
+        double sharedOne = throughput(1);
+        double sharedMany = throughput(threads);
+        PasswordGenerator.useStripedRandom(RngAlgorithm.DRBG, false);
+        double stripedOne = throughput(1);
+        double stripedMany = throughput(threads);
+        System.out.printf("passwords/s shared: 1=%.0f %d=%.0f, striped: 1=%.0f %d=%.0f (%d cores)%n", sharedOne,
+                threads, sharedMany, stripedOne, threads, stripedMany, cores);
+
+        double expectedSpeedUp = Math.min(threads, cores) / 2.0;
+        assertTrue(stripedMany >= stripedOne * Math.max(expectedSpeedUp, 0.5),
+                "striped " + threads + " threads: " + stripedMany + "/s vs 1 thread: " + stripedOne + "/s");
+    }
+
+    private static double throughput(int threads) throws InterruptedException {
+        CharsetPolicy policy = CharsetPolicy.of(15);
+        char[] warm = new char[16];
+        GeneratorContext context = PasswordGenerator.context();
+        for (int i = 0; i < 200_000; i++)
+            context.generate(16, policy, warm, 0);
+
+        LongAdder done = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                char[] dest = new char[16];
+                GeneratorContext ctx = PasswordGenerator.context();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long end = System.nanoTime() + MEASURE_NANOS;
+                long n = 0;
+                while (System.nanoTime() < end) {
+                    ctx.generate(16, policy, dest, 0);
+                    n++;
+                }
+                done.add(n);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread w : workers)
+            w.join();
+        return done.sum() / (MEASURE_NANOS / 1e9);
+    }
+}
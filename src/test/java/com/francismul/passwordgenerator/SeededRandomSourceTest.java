@@ -0,0 +1,56 @@
+package com.francismul.passwordgenerator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Seeded streams depend only on the seed and the split path: replaying a path gives the same
+ * bytes, and any two different paths, nested or not, give different ones.
+ */
+class SeededRandomSourceTest {
+
+    @Test
+    void sameSeedAndSplitPathGiveSameBytes() {
+        assertArrayEquals(bytes(RandomSource.seeded(5)), bytes(RandomSource.seeded(5)));
+        assertArrayEquals(bytes(RandomSource.seeded(5).split(3)), bytes(RandomSource.seeded(5).split(3)));
+        assertArrayEquals(bytes(RandomSource.seeded(5).split(3).split(7)),
+                bytes(RandomSource.seeded(5).split(3).split(7)));
+    }
+
+    @Test
+    void differentBranchesGiveDifferentBytes() {
+        RandomSource root = RandomSource.seeded(5);
+        List<RandomSource> branches = List.of(RandomSource.seeded(5), root.split(0), root.split(1),
+                root.split(0).split(0), root.split(0).split(1), root.split(1).split(0), root.split(0).split(0).split(0),
+                RandomSource.seeded(6).split(0));
+        Set<String> seen = new HashSet<>();
+        for (RandomSource branch : branches)
+            seen.add(Arrays.toString(bytes(branch)));
+        assertEquals(branches.size(), seen.size());
+    }
+
+    @Test
+    void consumerRangesDoNotReplayEachOther() {
+        RandomSource root = RandomSource.seeded(5);
+        long[] ranges = { Streams.THREADS, Streams.POOL, Streams.SERVER, Streams.BATCH, Streams.ESTIMATE };
+        Set<String> seen = new HashSet<>();
+        for (long range : ranges)
+            seen.add(Arrays.toString(bytes(root.split(range))));
+        assertEquals(ranges.length, seen.size());
+        assertFalse(Arrays.equals(bytes(root.split(Streams.BATCH)), bytes(root.split(Streams.BATCH).split(0))));
+    }
+
+    private static byte[] bytes(RandomSource source) {
+        byte[] b = new byte[64];
+        source.nextBytes(b);
+        return b;
+    }
+}